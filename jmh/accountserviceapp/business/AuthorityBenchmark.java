@@ -0,0 +1,46 @@
+package accountserviceapp.business;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityBenchmark {
+    private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ACCOUNTANT", "ROLE_AUDITOR", "ROLE_ADMINISTRATOR");
+
+    @Param({"1", "3", "4"})
+    private int roleCount;
+
+    private User user;
+    private AccountAdapter accountAdapter;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setEmail("johndoe@acme.com");
+
+        for (int i = 0; i < roleCount; i++) {
+            user.addUserGroup(new Group(ROLES.get(i)));
+        }
+
+        accountAdapter = new AccountAdapter(user);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return accountAdapter.getAuthorities();
+    }
+
+    @Benchmark
+    public boolean isAdministrator() {
+        return user.isAdministrator();
+    }
+}
@@ -0,0 +1,81 @@
+package accountserviceapp.business;
+
+import accountserviceapp.presentation.EmployeeSalaryDTO;
+import accountserviceapp.presentation.PaymentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryServiceBenchmark {
+    private static final int EMPLOYEE_COUNT = 100;
+
+    @Param({"100", "1000", "10000"})
+    private int rows;
+
+    private SalaryService salaryService;
+    private List<PaymentDTO> payments;
+    private Map<String, Integer> employeeIds;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        salaryService = new SalaryService(null, null, null, null, new ObjectMapper(), new SimpleMeterRegistry());
+        payments = new ArrayList<>(rows);
+        employeeIds = new HashMap<>();
+
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            employeeIds.put("employee" + i + "@acme.com", i + 1);
+        }
+
+        for (int i = 0; i < rows; i++) {
+            PaymentDTO payment = new PaymentDTO();
+            payment.setEmployeeEmail("employee" + (i % EMPLOYEE_COUNT) + "@acme.com");
+            payment.setPeriodKey(PayPeriod.parse(String.format("%02d-%04d", i / EMPLOYEE_COUNT % 12 + 1,
+                    2000 + i / EMPLOYEE_COUNT / 12)));
+            payment.setSalary(100_000L + i);
+            payments.add(payment);
+        }
+
+        user = new User();
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("employee0@acme.com");
+    }
+
+    @Benchmark
+    public void isValidPaymentDTO(Blackhole blackhole) {
+        for (PaymentDTO payment : payments) {
+            blackhole.consume(salaryService.isValidPaymentDTO(payment));
+        }
+    }
+
+    @Benchmark
+    public boolean hasNoDuplicateAllocationsInList() {
+        return salaryService.hasNoDuplicateAllocationsInList(payments, employeeIds);
+    }
+
+    @Benchmark
+    public void formatSalary(Blackhole blackhole) {
+        for (PaymentDTO payment : payments) {
+            blackhole.consume(salaryService.formatSalary(payment.getSalary()));
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeSalaryDTO> createEmployeeSalaryList() {
+        return salaryService.createEmployeeSalaryList(user, payments);
+    }
+}
@@ -0,0 +1,70 @@
+package accountserviceapp.business;
+
+import accountserviceapp.presentation.EmployeeSalaryDTO;
+import accountserviceapp.presentation.UserResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean indentOutput;
+
+    private ObjectMapper objectMapper;
+    private List<UserResponse> userResponses;
+    private List<EmployeeSalaryDTO> employeeSalaries;
+    private List<EventLog> eventLogs;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, indentOutput);
+        userResponses = new ArrayList<>(size);
+        employeeSalaries = new ArrayList<>(size);
+        eventLogs = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setFirstName("John" + i);
+            user.setLastName("Doe");
+            user.setEmail("johndoe" + i + "@acme.com");
+            user.addUserGroup(new Group("ROLE_USER"));
+            user.addUserGroup(new Group("ROLE_ACCOUNTANT"));
+            userResponses.add(new UserResponse(user));
+
+            employeeSalaries.add(new EmployeeSalaryDTO("John" + i, "Doe", "January-2021", "1234 dollar(s) 56 cent(s)"));
+
+            eventLogs.add(new EventLog(EventLog.parseDate("2021-01-01 10:15:30"), "LOGIN_FAILED", "johndoe" + i + "@acme.com",
+                    "/api/empl/payment", "/api/empl/payment"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponses);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeSalaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employeeSalaries);
+    }
+
+    @Benchmark
+    public byte[] serializeEventLogs() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventLogs);
+    }
+}
@@ -0,0 +1,83 @@
+package accountserviceapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyReport {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos, int status) {
+        OperationStats operationStats = stats.get(operation);
+        operationStats.histogram.recordValue(latencyNanos);
+
+        if (status < 0) {
+            operationStats.errors.increment();
+        } else if (status >= 500) {
+            operationStats.serverErrors.increment();
+        } else if (status >= 400) {
+            operationStats.clientErrors.increment();
+        }
+    }
+
+    public void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-14s %9s %10s %10s %10s %10s %10s %8s %8s %8s%n", "operation", "count", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx", "5xx", "errors");
+
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.histogram;
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+
+            out.printf("%-14s %9d %10.1f %10.2f %10.2f %10.2f %10.2f %8d %8d %8d%n", operation,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI,
+                    operationStats.clientErrors.sum(),
+                    operationStats.serverErrors.sum(),
+                    operationStats.errors.sum());
+        });
+    }
+
+    public void writeHistograms(Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(reportDir.resolve(entry.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static class OperationStats {
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
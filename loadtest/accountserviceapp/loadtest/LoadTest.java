@@ -0,0 +1,151 @@
+package accountserviceapp.loadtest;
+
+import accountserviceapp.AccountServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class LoadTest {
+    private final LoadTestConfig config;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.operations = config.getMix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += config.getMix().get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Path dataDir = Files.createTempDirectory("account-service-loadtest");
+
+        try (ConfigurableApplicationContext context = startApplication(dataDir)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            System.out.println("Seeding " + config);
+            LoadTestData data = new LoadTestSeeder(context, config).seed();
+
+            new LoadTest(config).run(new LoadTestClient(port), data);
+        } finally {
+            deleteRecursively(dataDir);
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(Path dataDir) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("service_db").toAbsolutePath(),
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--audit.writer.spill-file=" + dataDir.resolve("audit_spill.ndjson").toAbsolutePath(),
+                "--logging.level.root=WARN"));
+
+        if (System.getProperty("loadtest.app.auth.throttle.enabled") == null) {
+            args.add("--auth.throttle.enabled=false");
+        }
+
+        for (Map.Entry<Object, Object> property : System.getProperties().entrySet()) {
+            String key = property.getKey().toString();
+            if (key.startsWith("loadtest.app.")) {
+                args.add("--" + key.substring("loadtest.app.".length()) + "=" + property.getValue());
+            }
+        }
+
+        return new SpringApplicationBuilder(AccountServiceApplication.class).run(args.toArray(new String[0]));
+    }
+
+    public void run(LoadTestClient client, LoadTestData data) throws Exception {
+        LatencyReport report = new LatencyReport();
+        long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+
+        primeCredentials(client, data);
+
+        System.out.println("Running " + config.getConcurrency() + " workers for " + config.getWarmupSeconds()
+                + "s warmup + " + config.getDurationSeconds() + "s");
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.getConcurrency());
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            workers.execute(() -> runWorker(client, data, report, measureStart, deadline));
+        }
+        workers.shutdown();
+        workers.awaitTermination(config.getWarmupSeconds() + config.getDurationSeconds() + 600L, TimeUnit.SECONDS);
+
+        double elapsedSeconds = (Math.max(System.nanoTime(), deadline) - measureStart) / 1e9;
+        report.print(System.out, elapsedSeconds);
+        report.writeHistograms(config.getReportDir());
+        System.out.println("Histograms written to " + config.getReportDir().toAbsolutePath());
+    }
+
+    private void primeCredentials(LoadTestClient client, LoadTestData data) throws Exception {
+        List<String> emails = new ArrayList<>(data.getUsers());
+        emails.addAll(List.of(data.getAdministrator(), data.getAccountant(), data.getAuditor()));
+
+        System.out.println("Priming credentials for " + emails.size() + " users");
+        for (String email : emails) {
+            client.send("GET", "/api/empl/payment", email, LoadTestData.PASSWORD, null);
+        }
+    }
+
+    private void runWorker(LoadTestClient client, LoadTestData data, LatencyReport report,
+                           long measureStart, long deadline) {
+        long start;
+        while ((start = System.nanoTime()) < deadline) {
+            Operation operation = nextOperation();
+            int status;
+
+            try {
+                status = operation.execute(client, data);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+
+            if (start >= measureStart) {
+                report.record(operation, System.nanoTime() - start, status);
+            }
+        }
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    private static void deleteRecursively(Path dir) throws Exception {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
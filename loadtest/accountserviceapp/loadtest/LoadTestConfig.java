@@ -0,0 +1,77 @@
+package accountserviceapp.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+public class LoadTestConfig {
+    private static final String DEFAULT_MIX = "payslip=60,failed-login=15,signup=5,upload=5,role-change=5,audit-read=10";
+
+    private final int concurrency;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int users;
+    private final int payments;
+    private final int uploadRows;
+    private final int auditRows;
+    private final Map<Operation, Integer> mix;
+    private final Path reportDir;
+
+    private LoadTestConfig(int concurrency, int durationSeconds, int warmupSeconds, int users, int payments,
+                           int uploadRows, int auditRows, Map<Operation, Integer> mix, Path reportDir) {
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.users = users;
+        this.payments = payments;
+        this.uploadRows = uploadRows;
+        this.auditRows = auditRows;
+        this.mix = mix;
+        this.reportDir = reportDir;
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.concurrency", 16),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.warmup-seconds", 10),
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.payments", 10000),
+                Integer.getInteger("loadtest.upload-rows", 1000),
+                Integer.getInteger("loadtest.audit-rows", 10000),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromName(parts[0].trim()), weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations: " + mix);
+        }
+
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency + ", duration=" + durationSeconds + "s, warmup=" + warmupSeconds
+                + "s, users=" + users + ", payments=" + payments + ", upload-rows=" + uploadRows
+                + ", audit-rows=" + auditRows + ", mix=" + mix;
+    }
+}
@@ -0,0 +1,46 @@
+package accountserviceapp.loadtest;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+public class LoadTestData {
+    public static final String PASSWORD = "loadtestpassword";
+
+    private final String administrator;
+    private final String accountant;
+    private final String auditor;
+    private final List<String> users;
+    private final List<String> victims;
+    private final List<byte[]> uploadPayloads;
+    private final AtomicInteger signupSequence = new AtomicInteger();
+
+    public LoadTestData(String administrator, String accountant, String auditor, List<String> users,
+                        List<String> victims, List<byte[]> uploadPayloads) {
+        this.administrator = administrator;
+        this.accountant = accountant;
+        this.auditor = auditor;
+        this.users = users;
+        this.victims = victims;
+        this.uploadPayloads = uploadPayloads;
+    }
+
+    public String randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    public String randomVictim() {
+        return victims.get(ThreadLocalRandom.current().nextInt(victims.size()));
+    }
+
+    public byte[] randomUploadPayload() {
+        return uploadPayloads.get(ThreadLocalRandom.current().nextInt(uploadPayloads.size()));
+    }
+
+    public int nextSignupSequence() {
+        return signupSequence.incrementAndGet();
+    }
+}
@@ -0,0 +1,151 @@
+package accountserviceapp.loadtest;
+
+import accountserviceapp.business.EventLog;
+import accountserviceapp.business.LoggingService;
+import accountserviceapp.business.PayPeriod;
+import accountserviceapp.business.Role;
+import accountserviceapp.business.RoleRegistry;
+import accountserviceapp.business.SalaryService;
+import accountserviceapp.business.User;
+import accountserviceapp.persistence.UserRepository;
+import accountserviceapp.presentation.PaymentDTO;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class LoadTestSeeder {
+    private static final int UPLOAD_PAYLOADS = 4;
+    private static final int SEED_CHUNK_SIZE = 10000;
+    private static final long AUDIT_SPREAD_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private final ApplicationContext context;
+    private final LoadTestConfig config;
+
+    public LoadTestSeeder(ApplicationContext context, LoadTestConfig config) {
+        this.context = context;
+        this.config = config;
+    }
+
+    public LoadTestData seed() {
+        List<String> users = emails("loaduser", config.getUsers());
+        List<String> victims = emails("loadvictim", Math.max(1, config.getUsers() / 10));
+
+        seedUsers(users, victims);
+        seedPayments(users);
+        seedAuditEvents(users);
+
+        return new LoadTestData("loadadmin@acme.com", "loadaccountant@acme.com", "loadauditor@acme.com",
+                users, victims, createUploadPayloads(users));
+    }
+
+    private void seedUsers(List<String> users, List<String> victims) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        RoleRegistry roleRegistry = context.getBean(RoleRegistry.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(LoadTestData.PASSWORD);
+
+        List<User> seededUsers = new ArrayList<>(SEED_CHUNK_SIZE);
+        seededUsers.add(createUser("loadadmin@acme.com", passwordHash, roleRegistry, Role.ADMINISTRATOR));
+        seededUsers.add(createUser("loadaccountant@acme.com", passwordHash, roleRegistry, Role.USER, Role.ACCOUNTANT));
+        seededUsers.add(createUser("loadauditor@acme.com", passwordHash, roleRegistry, Role.AUDITOR));
+
+        List<String> emails = new ArrayList<>(users);
+        emails.addAll(victims);
+        for (String email : emails) {
+            seededUsers.add(createUser(email, passwordHash, roleRegistry, Role.USER));
+
+            if (seededUsers.size() == SEED_CHUNK_SIZE) {
+                userRepository.saveAll(seededUsers);
+                seededUsers = new ArrayList<>(SEED_CHUNK_SIZE);
+            }
+        }
+
+        userRepository.saveAll(seededUsers);
+    }
+
+    private User createUser(String email, String passwordHash, RoleRegistry roleRegistry, Role... roles) {
+        User user = new User();
+        user.setFirstName("Load");
+        user.setLastName("Test");
+        user.setEmail(email);
+        user.setPassword(passwordHash);
+        user.setAccountNonLocked(true);
+        user.setFailedAttempt(0);
+
+        for (Role role : roles) {
+            user.addUserGroup(roleRegistry.getGroup(role));
+        }
+
+        return user;
+    }
+
+    private void seedPayments(List<String> users) {
+        SalaryService salaryService = context.getBean(SalaryService.class);
+        List<PaymentDTO> payments = new ArrayList<>(SEED_CHUNK_SIZE);
+
+        for (int i = 0; i < config.getPayments(); i++) {
+            PaymentDTO payment = new PaymentDTO();
+            payment.setEmployeeEmail(users.get(i % users.size()));
+            payment.setPeriodKey(periodKey(i / users.size()));
+            payment.setSalary(100_000L + i % 50_000);
+            payments.add(payment);
+
+            if (payments.size() == SEED_CHUNK_SIZE) {
+                salaryService.upsertEmployeeSalaryTableByList(payments);
+                payments = new ArrayList<>(SEED_CHUNK_SIZE);
+            }
+        }
+
+        if (!payments.isEmpty()) {
+            salaryService.upsertEmployeeSalaryTableByList(payments);
+        }
+    }
+
+    private void seedAuditEvents(List<String> users) {
+        LoggingService loggingService = context.getBean(LoggingService.class);
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < config.getAuditRows(); i++) {
+            long createdAt = now - (long) (config.getAuditRows() - i) * AUDIT_SPREAD_MILLIS / config.getAuditRows();
+            loggingService.logCurrEvent(new EventLog(createdAt, "LOGIN_FAILED", users.get(i % users.size()),
+                    "/api/empl/payment", "/api/empl/payment"));
+        }
+    }
+
+    private List<byte[]> createUploadPayloads(List<String> users) {
+        List<byte[]> payloads = new ArrayList<>(UPLOAD_PAYLOADS);
+
+        for (int payload = 0; payload < UPLOAD_PAYLOADS; payload++) {
+            StringBuilder json = new StringBuilder(config.getUploadRows() * 80).append('[');
+
+            for (int row = 0; row < config.getUploadRows(); row++) {
+                if (row > 0) {
+                    json.append(',');
+                }
+                json.append("{\"employee\":\"").append(users.get((row + payload) % users.size()))
+                        .append("\",\"period\":\"").append(PayPeriod.format(periodKey(row / users.size())))
+                        .append("\",\"salary\":").append(200_000 + payload * 1000 + row % 1000)
+                        .append('}');
+            }
+
+            payloads.add(json.append(']').toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return payloads;
+    }
+
+    private static int periodKey(int monthOffset) {
+        return (2000 + monthOffset / 12) * 100 + monthOffset % 12 + 1;
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add(prefix + i + "@acme.com");
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,94 @@
+package accountserviceapp.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+public enum Operation {
+    SIGNUP("signup") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            String email = "loadsignup" + data.nextSignupSequence() + "@acme.com";
+            String body = "{\"name\":\"Load\",\"lastname\":\"Test\",\"email\":\"" + email
+                    + "\",\"password\":\"" + LoadTestData.PASSWORD + "\"}";
+            return client.send("POST", "/api/auth/signup", null, null, body.getBytes(StandardCharsets.UTF_8));
+        }
+    },
+    PAYSLIP("payslip") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            return client.send("GET", "/api/empl/payment", data.randomUser(), LoadTestData.PASSWORD, null);
+        }
+    },
+    PAYSLIP_NDJSON("payslip-ndjson") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            return client.send("GET", "/api/empl/payment", data.randomUser(), LoadTestData.PASSWORD, null,
+                    NDJSON);
+        }
+    },
+    UPLOAD("upload") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            return client.send("POST", "/api/acct/payments", data.getAccountant(), LoadTestData.PASSWORD,
+                    data.randomUploadPayload());
+        }
+    },
+    ROLE_CHANGE("role-change") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            String operation = ThreadLocalRandom.current().nextBoolean() ? "GRANT" : "REMOVE";
+            String body = "{\"user\":\"" + data.randomUser() + "\",\"role\":\"AUDITOR\",\"operation\":\""
+                    + operation + "\"}";
+            return client.send("PUT", "/api/admin/user/role", data.getAdministrator(), LoadTestData.PASSWORD,
+                    body.getBytes(StandardCharsets.UTF_8));
+        }
+    },
+    FAILED_LOGIN("failed-login") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            return client.send("GET", "/api/empl/payment", data.randomVictim(), "wrongpassword1234", null);
+        }
+    },
+    AUDIT_READ("audit-read") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            return client.send("GET", "/api/security/events/?limit=100", data.getAuditor(), LoadTestData.PASSWORD, null);
+        }
+    },
+    AUDIT_READ_NDJSON("audit-read-ndjson") {
+        @Override
+        int execute(LoadTestClient client, LoadTestData data) throws Exception {
+            return client.send("GET", "/api/security/events/?limit=100", data.getAuditor(), LoadTestData.PASSWORD, null,
+                    NDJSON);
+        }
+    };
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    abstract int execute(LoadTestClient client, LoadTestData data) throws Exception;
+
+    public String getName() {
+        return name;
+    }
+
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
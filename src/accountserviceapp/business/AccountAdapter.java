@@ -17,6 +17,10 @@ public class AccountAdapter implements UserDetails {
         this.user = user;
     }
 
+    public User getUser() {
+        return user;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         Set<Group> userGroups = user.getUserGroups();
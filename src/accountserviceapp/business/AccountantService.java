@@ -1,46 +1,306 @@
 package accountserviceapp.business;
 
 import accountserviceapp.exceptions.CustomExceptions;
+import accountserviceapp.persistence.PayrollJdbcRepository;
 import accountserviceapp.presentation.PaymentDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.ArrayList;
-import java.util.Map;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 @Service
 public class AccountantService {
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    public record PeriodRange(int fromKey, int toKey) {}
+
+    private record ExportTrailer(long rows, String crc32) {}
+
     private final SalaryService salaryService;
+    private final PayrollJdbcRepository payrollJdbcRepository;
+    private final PayrollSummaryService payrollSummaryService;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int streamChunkSize;
 
-    public AccountantService(SalaryService salaryService, UserService userService) {
+    public AccountantService(SalaryService salaryService,
+                             PayrollJdbcRepository payrollJdbcRepository,
+                             PayrollSummaryService payrollSummaryService,
+                             UserService userService,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${payroll.upload.chunk-size:1000}") int streamChunkSize) {
         this.salaryService = salaryService;
+        this.payrollJdbcRepository = payrollJdbcRepository;
+        this.payrollSummaryService = payrollSummaryService;
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.streamChunkSize = streamChunkSize;
     }
 
     public ResponseEntity<?> uploadPayrolls(ArrayList<PaymentDTO> paymentDTOList) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return upsertPayrolls(paymentDTOList);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            recordUpload(sample, "bulk", outcome, paymentDTOList.size());
+        }
+    }
+
+    private ResponseEntity<?> upsertPayrolls(ArrayList<PaymentDTO> paymentDTOList) {
+        Map<String, Integer> employeeIds = userService.findEmployeeIds(paymentDTOList.stream()
+                .map(PaymentDTO::getEmployeeEmail)
+                .toList());
+
         for (PaymentDTO currPaymentDTO : paymentDTOList) {
-            validatePaymentDTO(currPaymentDTO);
+            validatePaymentDTO(currPaymentDTO, employeeIds);
         }
 
-        if (!salaryService.hasNoDuplicateAllocationsInList(paymentDTOList)) {
+        if (!salaryService.hasNoDuplicateAllocationsInList(paymentDTOList, employeeIds)) {
             throw new CustomExceptions.DuplicatePaymentException();
         }
 
-        salaryService.upsertEmployeeSalaryTableByList(paymentDTOList);
+        try {
+            salaryService.upsertEmployeeSalaryTableByList(paymentDTOList);
+        } catch (DataIntegrityViolationException e) {
+            salaryService.upsertEmployeeSalaryTableByList(paymentDTOList);
+        }
+        return new ResponseEntity<>(Map.of("status", "Added successfully!"), HttpStatus.OK);
+    }
+
+    public ResponseEntity<?> uploadPayrollStream(InputStream inputStream, boolean atomic) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        int rows = 0;
+
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new CustomExceptions.InvalidPaymentFormatException();
+            }
+
+            rows = atomic
+                    ? transactionTemplate.execute(status -> ingestPaymentStream(parser, false))
+                    : ingestPaymentStream(parser, true);
+        } catch (IOException | RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            recordUpload(sample, "stream", outcome, rows);
+        }
+
         return new ResponseEntity<>(Map.of("status", "Added successfully!"), HttpStatus.OK);
     }
 
+    private int ingestPaymentStream(JsonParser parser, boolean retryChunks) {
+        List<PaymentDTO> chunk = new ArrayList<>(streamChunkSize);
+        int rows = 0;
+
+        try {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(parser.readValueAs(PaymentDTO.class));
+                rows++;
+
+                if (chunk.size() == streamChunkSize) {
+                    writePaymentChunk(chunk, retryChunks);
+                    chunk.clear();
+                }
+            }
+
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new CustomExceptions.InvalidPaymentFormatException();
+            }
+        } catch (JsonProcessingException e) {
+            throw new CustomExceptions.InvalidPaymentFormatException();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!chunk.isEmpty()) {
+            writePaymentChunk(chunk, retryChunks);
+        }
+
+        return rows;
+    }
+
+    private void writePaymentChunk(List<PaymentDTO> chunk, boolean retryChunk) {
+        Map<String, Integer> employeeIds = userService.findEmployeeIds(chunk.stream()
+                .map(PaymentDTO::getEmployeeEmail)
+                .toList());
+
+        for (PaymentDTO currPaymentDTO : chunk) {
+            validatePaymentDTO(currPaymentDTO, employeeIds);
+        }
+
+        if (!salaryService.hasNoDuplicateAllocationsInList(chunk, employeeIds)) {
+            throw new CustomExceptions.DuplicatePaymentException();
+        }
+
+        try {
+            salaryService.upsertEmployeeSalaryTableByList(chunk);
+        } catch (DataIntegrityViolationException e) {
+            if (!retryChunk) {
+                throw e;
+            }
+            salaryService.upsertEmployeeSalaryTableByList(chunk);
+        }
+    }
+
     public ResponseEntity<?> uploadPayroll(PaymentDTO paymentDTO) {
-        validatePaymentDTO(paymentDTO);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return upsertPayroll(paymentDTO);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            recordUpload(sample, "single", outcome, 1);
+        }
+    }
 
-        salaryService.upsertEmployeeSalaryTable(paymentDTO);
+    private ResponseEntity<?> upsertPayroll(PaymentDTO paymentDTO) {
+        if (!userService.emailExists(paymentDTO.getEmployeeEmail())) {
+            throw new CustomExceptions.InvalidEmployeeEmailException();
+        }
+
+        if (!salaryService.isValidPaymentDTO(paymentDTO)) {
+            throw new CustomExceptions.InvalidPaymentFormatException();
+        }
+
+        try {
+            salaryService.upsertEmployeeSalaryTable(paymentDTO);
+        } catch (DataIntegrityViolationException e) {
+            salaryService.upsertEmployeeSalaryTable(paymentDTO);
+        }
         return new ResponseEntity<>(Map.of("status", "Updated successfully!"), HttpStatus.OK);
     }
 
-    private void validatePaymentDTO(PaymentDTO paymentDTO) {
-        if (!userService.emailExists(paymentDTO.getEmployeeEmail())) {
+    public PeriodRange parsePeriodRange(String period, String from, String to) {
+        int fromKey = parsePeriod(period != null ? period : from, 0);
+        int toKey = period != null ? fromKey : parsePeriod(to, Integer.MAX_VALUE);
+
+        if (fromKey > toKey) {
+            throw new CustomExceptions.InvalidPeriodException();
+        }
+
+        return new PeriodRange(fromKey, toKey);
+    }
+
+    private int parsePeriod(String period, int defaultKey) {
+        if (period == null) {
+            return defaultKey;
+        }
+
+        int periodKey = PayPeriod.parse(period);
+        if (!PayPeriod.isValid(periodKey)) {
+            throw new CustomExceptions.InvalidPeriodException();
+        }
+
+        return periodKey;
+    }
+
+    public List<PayrollSummary> getPayrollSummary(PeriodRange range) {
+        return payrollSummaryService.getSummaries(range.fromKey(), range.toKey());
+    }
+
+    public ExportFormat parseExportFormat(String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat == null) {
+            throw new CustomExceptions.InvalidExportFormatException();
+        }
+
+        return exportFormat;
+    }
+
+    public void exportPayroll(PeriodRange range, ExportFormat format, OutputStream outputStream) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        CRC32 crc = new CRC32();
+        long[] rows = {0};
+
+        try (BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE)) {
+            OutputStream checkedStream = new CheckedOutputStream(bufferedStream, crc);
+            ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+            if (format == ExportFormat.CSV) {
+                checkedStream.write(ExportFormat.csvRow("employee", "name", "lastname", "period", "salary")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+
+            payrollJdbcRepository.forEachPayment(range.fromKey(), range.toKey(), payment -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        checkedStream.write(ExportFormat.csvRow(payment.getEmployeeEmail(), payment.getFirstName(),
+                                payment.getLastName(), payment.getPeriod(), Long.toString(payment.getSalary()))
+                                .getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        checkedStream.write(rowWriter.writeValueAsBytes(payment));
+                        checkedStream.write('\n');
+                    }
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            String checksum = String.format("%08x", crc.getValue());
+            String trailer = format == ExportFormat.CSV
+                    ? "# rows=" + rows[0] + " crc32=" + checksum + "\n"
+                    : rowWriter.writeValueAsString(new ExportTrailer(rows[0], checksum)) + "\n";
+            bufferedStream.write(trailer.getBytes(StandardCharsets.UTF_8));
+        } catch (UncheckedIOException e) {
+            outcome = e.getCause().getClass().getSimpleName();
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("payroll.export", "format", format.getExtension(), "outcome", outcome));
+        }
+    }
+
+    private void recordUpload(Timer.Sample sample, String mode, String outcome, int rows) {
+        sample.stop(meterRegistry.timer("payroll.upload", "mode", mode, "outcome", outcome));
+        DistributionSummary.builder("payroll.upload.rows")
+                .tags("mode", mode, "outcome", outcome)
+                .serviceLevelObjectives(1, 10, 100, 1_000, 10_000, 100_000)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    private void validatePaymentDTO(PaymentDTO paymentDTO, Map<String, Integer> employeeIds) {
+        String employeeEmail = paymentDTO.getEmployeeEmail();
+        if (employeeEmail == null || !employeeIds.containsKey(employeeEmail.toLowerCase())) {
             throw new CustomExceptions.InvalidEmployeeEmailException();
         }
 
@@ -4,12 +4,20 @@ import accountserviceapp.exceptions.CustomExceptions;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class AdministratorService {
     private final UserService userService;
+    private final PayrollSummaryService payrollSummaryService;
 
-    public AdministratorService(UserService userService) {
+    public AdministratorService(UserService userService, PayrollSummaryService payrollSummaryService) {
         this.userService = userService;
+        this.payrollSummaryService = payrollSummaryService;
+    }
+
+    public Map<String, Object> rebuildPayrollSummary() {
+        return payrollSummaryService.rebuild();
     }
 
     private void validateUserDeletion(String userEmail) {
@@ -40,13 +48,12 @@ public class AdministratorService {
             throw new CustomExceptions.UserNotFoundException();
         }
 
-        if (role == null || !role.matches("ADMINISTRATOR|ACCOUNTANT|USER|AUDITOR")) {
+        Role parsedRole = Role.fromName(role);
+        if (parsedRole == null) {
             throw new CustomExceptions.RoleNotFoundException();
         }
 
-        String formattedRole = "ROLE_" + role;
-
-        if (!user.getRoleStrings().contains(formattedRole) && operation.equals("REMOVE")) {
+        if (!user.hasRole(parsedRole) && operation.equals("REMOVE")) {
             throw new CustomExceptions.UserNotOfRoleException();
         }
 
@@ -54,7 +61,7 @@ public class AdministratorService {
             throw new CustomExceptions.AdminDeletionException();
         }
 
-        if (user.getRoleStrings().size() == 1 && operation.equals("REMOVE")) {
+        if (user.getUserGroups().size() == 1 && operation.equals("REMOVE")) {
             throw new CustomExceptions.UserMinimumRoleException();
         }
     }
@@ -63,14 +70,14 @@ public class AdministratorService {
     public void manageUserRoles(String email, String role, String operation) {
         validateUserRoleManagement(email, role, operation);
 
-        String formattedRole = "ROLE_" + role;
+        Role parsedRole = Role.fromName(role);
 
         User user = userService.getUserByEmail(email);
 
         if (operation.equals("GRANT")) {
-            userService.setUserGroup(user, formattedRole);
+            userService.setUserGroup(user, parsedRole);
         } else if (operation.equals("REMOVE")) {
-            userService.removeUserGroup(user, formattedRole);
+            userService.removeUserGroup(user, parsedRole);
         }
     }
 
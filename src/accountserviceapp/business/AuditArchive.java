@@ -0,0 +1,99 @@
+package accountserviceapp.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class AuditArchive {
+    private static final String ARCHIVE_SUFFIX = ".ndjson.gz";
+
+    private final ObjectWriter archiveWriter;
+    private final MeterRegistry meterRegistry;
+    private final Path archiveDir;
+
+    public AuditArchive(ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${audit.retention.archive-dir:}") String archiveDir) {
+        this.archiveWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.meterRegistry = meterRegistry;
+        this.archiveDir = archiveDir.isBlank() ? null : Path.of(archiveDir);
+    }
+
+    public boolean isEnabled() {
+        return archiveDir != null;
+    }
+
+    public long findLastArchivedId(String prefix) throws IOException {
+        if (!Files.isDirectory(archiveDir)) {
+            return 0;
+        }
+
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            return files
+                    .map(file -> file.getFileName().toString())
+                    .filter(fileName -> fileName.startsWith(prefix) && fileName.endsWith(ARCHIVE_SUFFIX))
+                    .mapToLong(fileName -> Long.parseLong(
+                            fileName.substring(fileName.lastIndexOf('-') + 1, fileName.length() - ARCHIVE_SUFFIX.length())))
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    public long archive(String prefix, long lastArchivedId, Consumer<Consumer<EventLog>> eventLogs) throws IOException {
+        Files.createDirectories(archiveDir);
+        long[] idRange = {0, lastArchivedId};
+        Path tempFile = archiveDir.resolve(prefix + ARCHIVE_SUFFIX + ".tmp");
+
+        try (OutputStream outputStream = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile)))) {
+            eventLogs.accept(eventLog -> {
+                if (eventLog.getId() <= lastArchivedId) {
+                    return;
+                }
+
+                if (idRange[0] == 0) {
+                    idRange[0] = eventLog.getId();
+                }
+                idRange[1] = eventLog.getId();
+
+                try {
+                    outputStream.write(archiveWriter.writeValueAsBytes(new ArchivedEventLog(eventLog.getId(),
+                            eventLog.getCreatedAt(), eventLog.getDate(), eventLog.getAction(), eventLog.getSubject(),
+                            eventLog.getObject(), eventLog.getPath())));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (idRange[1] == lastArchivedId) {
+            Files.delete(tempFile);
+            return lastArchivedId;
+        }
+
+        Path archiveFile = archiveDir.resolve(prefix + idRange[0] + "-" + idRange[1] + ARCHIVE_SUFFIX);
+        Files.move(tempFile, archiveFile, StandardCopyOption.ATOMIC_MOVE);
+        meterRegistry.counter("audit.retention.partitions", "operation", "archived").increment();
+        return idRange[1];
+    }
+
+    private record ArchivedEventLog(int id, long createdAt, String date, String action, String subject,
+                                    String object, String path) {}
+}
@@ -0,0 +1,306 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.EventLogJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+@ConditionalOnProperty(name = "audit.store", havingValue = "jdbc", matchIfMissing = true)
+public class AuditLogWriter implements SmartLifecycle {
+    public enum OverflowPolicy { BLOCK, DROP, SPILL }
+
+    record SpilledEvent(long createdAt, String action, String subject, String object, String path) {}
+
+    private final EventLogJdbcRepository eventLogJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter spillWriter;
+    private final Queue<EventLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillFile;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Counter spillReplayedCounter;
+    private final Counter spillFailedCounter;
+    private final Counter spillCorruptCounter;
+    private final Counter spillReplayFailedCounter;
+
+    private volatile boolean running;
+    private volatile boolean spillPending;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(EventLogJdbcRepository eventLogJdbcRepository,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMillis,
+                          @Value("${audit.writer.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                          @Value("${audit.writer.spill-file:../audit_spill.ndjson}") String spillFile) {
+        this.eventLogJdbcRepository = eventLogJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.spillWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = Path.of(spillFile);
+
+        meterRegistry.gauge("audit.writer.queue.depth", queueDepth);
+        this.batchSizeSummary = DistributionSummary.builder("audit.writer.batch.size").register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.writer.overflow").tag("policy", "drop").register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.writer.overflow").tag("policy", "spill").register(meterRegistry);
+        this.spillReplayedCounter = meterRegistry.counter("audit.writer.spill", "operation", "replayed");
+        this.spillFailedCounter = meterRegistry.counter("audit.writer.spill", "operation", "write-failed");
+        this.spillCorruptCounter = meterRegistry.counter("audit.writer.spill", "operation", "corrupt");
+        this.spillReplayFailedCounter = meterRegistry.counter("audit.writer.spill", "operation", "replay-failed");
+    }
+
+    public void enqueue(EventLog eventLog) {
+        if (!running) {
+            writeBatch(List.of(eventLog));
+            return;
+        }
+
+        while (!tryReserveSlot()) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                droppedCounter.increment();
+                return;
+            } else if (overflowPolicy == OverflowPolicy.SPILL && spill(List.of(eventLog))) {
+                return;
+            }
+
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        queue.offer(eventLog);
+        if (!running) {
+            drainAndWrite();
+        } else if (queueDepth.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private boolean tryReserveSlot() {
+        int depth;
+        do {
+            depth = queueDepth.get();
+            if (depth >= queueCapacity) {
+                return false;
+            }
+        } while (!queueDepth.compareAndSet(depth, depth + 1));
+
+        return true;
+    }
+
+    private void runWriter() {
+        while (running) {
+            if (queueDepth.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drainAndWrite();
+
+            if (spillPending && queueDepth.get() < batchSize) {
+                replaySpill();
+            }
+        }
+    }
+
+    private void drainAndWrite() {
+        List<EventLog> batch = new ArrayList<>(batchSize);
+        EventLog eventLog;
+
+        while ((eventLog = queue.poll()) != null) {
+            queueDepth.decrementAndGet();
+            batch.add(eventLog);
+
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<EventLog> batch) {
+        long start = System.nanoTime();
+        try {
+            eventLogJdbcRepository.insertAll(batch);
+        } catch (RuntimeException e) {
+            spill(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(batch.size());
+        }
+    }
+
+    private synchronized boolean spill(List<EventLog> eventLogs) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (EventLog eventLog : eventLogs) {
+                lines.append(spillWriter.writeValueAsString(new SpilledEvent(eventLog.getCreatedAt(),
+                        eventLog.getAction(), eventLog.getSubject(), eventLog.getObject(), eventLog.getPath())))
+                        .append('\n');
+            }
+            Files.writeString(spillFile, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilledCounter.increment(eventLogs.size());
+            spillPending = true;
+            return true;
+        } catch (IOException e) {
+            spillFailedCounter.increment(eventLogs.size());
+            return false;
+        }
+    }
+
+    synchronized void replaySpill() {
+        if (!Files.exists(spillFile)) {
+            spillPending = false;
+            return;
+        }
+
+        Path remainingFile = spillFile.resolveSibling(spillFile.getFileName() + ".remaining");
+        try {
+            if (replaySpill(remainingFile)) {
+                Files.delete(spillFile);
+                spillPending = false;
+            } else {
+                Files.move(remainingFile, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            spillReplayFailedCounter.increment();
+        }
+    }
+
+    private boolean replaySpill(Path remainingFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(batchSize);
+            List<EventLog> batch = new ArrayList<>(batchSize);
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    SpilledEvent event = objectMapper.readValue(line, SpilledEvent.class);
+                    batch.add(new EventLog(event.createdAt(), event.action(), event.subject(), event.object(), event.path()));
+                    lines.add(line);
+                } catch (IOException e) {
+                    spillCorruptCounter.increment();
+                    continue;
+                }
+
+                if (batch.size() == batchSize) {
+                    if (!insertSpilled(batch)) {
+                        keepRemaining(lines, reader, remainingFile);
+                        return false;
+                    }
+                    lines.clear();
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty() && !insertSpilled(batch)) {
+                keepRemaining(lines, reader, remainingFile);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private boolean insertSpilled(List<EventLog> batch) {
+        try {
+            eventLogJdbcRepository.insertAll(batch);
+            spillReplayedCounter.increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            spillReplayFailedCounter.increment();
+            return false;
+        }
+    }
+
+    private void keepRemaining(List<String> lines, BufferedReader reader, Path remainingFile) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(remainingFile, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        spillPending = Files.exists(spillFile);
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread currWriterThread = writerThread;
+        LockSupport.unpark(currWriterThread);
+        try {
+            currWriterThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainAndWrite();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,29 @@
+package accountserviceapp.business;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.YearMonth;
+
+@Service
+public class AuditRetentionService {
+    private final EventLogStore eventLogStore;
+    private final int retentionMonths;
+
+    public AuditRetentionService(EventLogStore eventLogStore,
+                                 @Value("${audit.retention.months:0}") int retentionMonths) {
+        this.eventLogStore = eventLogStore;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void applyRetention() throws IOException {
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        eventLogStore.applyRetention(EventLog.partitionOf(YearMonth.now().minusMonths(retentionMonths)));
+    }
+}
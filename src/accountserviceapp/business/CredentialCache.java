@@ -0,0 +1,112 @@
+package accountserviceapp.business;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CredentialCache {
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> mac;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CredentialCache(@Value("${auth.credential-cache.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${auth.credential-cache.max-size:10000}") int maxSize,
+                           MeterRegistry meterRegistry) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec keySpec = new SecretKeySpec(secret, MAC_ALGORITHM);
+
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("auth.credential.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("auth.credential.cache").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gaugeMapSize("auth.credential.cache.size", Tags.empty(), entries);
+    }
+
+    public boolean isVerified(String username, String rawPassword, String storedHash) {
+        if (ttlMillis <= 0) {
+            return false;
+        }
+
+        String key = keyFor(username, rawPassword, storedHash);
+        Entry entry = entries.get(key);
+
+        if (entry == null || !entry.username().equals(username.toLowerCase())) {
+            misses.increment();
+            return false;
+        }
+
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return false;
+        }
+
+        hits.increment();
+        return true;
+    }
+
+    public void put(String username, String rawPassword, String storedHash) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            purgeExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+
+        entries.put(keyFor(username, rawPassword, storedHash),
+                new Entry(username.toLowerCase(), System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void evict(String username) {
+        String lowerCaseUsername = username.toLowerCase();
+        entries.values().removeIf(entry -> entry.username().equals(lowerCaseUsername));
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() < now);
+    }
+
+    private String keyFor(String username, String rawPassword, String storedHash) {
+        Mac currMac = mac.get();
+        currMac.update(username.toLowerCase().getBytes(StandardCharsets.UTF_8));
+        currMac.update((byte) 0);
+        currMac.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+        currMac.update((byte) 0);
+        currMac.update(storedHash.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(currMac.doFinal());
+    }
+
+    private record Entry(String username, long expiresAt) {}
+}
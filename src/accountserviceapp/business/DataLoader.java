@@ -2,26 +2,117 @@ package accountserviceapp.business;
 
 import accountserviceapp.persistence.GroupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class DataLoader {
+    private static final int MIGRATION_CHUNK_SIZE = 1000;
+
     private final GroupRepository groupRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
-    public DataLoader(GroupRepository groupRepository) {
+    public DataLoader(GroupRepository groupRepository, JdbcTemplate jdbcTemplate) {
         this.groupRepository = groupRepository;
+        this.jdbcTemplate = jdbcTemplate;
         createRoles();
+        migrateCanonicalEmails();
+        migratePaymentPeriods();
+        migrateEmployeeEmails();
+        addPaymentPeriodConstraint();
+        migrateEventLogTimestamps();
+        initPayrollSummary();
     }
 
     private void createRoles() {
-        try {
-            groupRepository.save(new Group("ROLE_ACCOUNTANT"));
-            groupRepository.save(new Group("ROLE_ADMINISTRATOR"));
-            groupRepository.save(new Group("ROLE_AUDITOR"));
-            groupRepository.save(new Group("ROLE_USER"));
-        } catch (Exception e) {
+        for (Role role : Role.values()) {
+            try {
+                if (groupRepository.findByRole(role.getAuthority()) == null) {
+                    groupRepository.save(new Group(role));
+                }
+            } catch (Exception e) {
+
+            }
+        }
+    }
+
+    private void migrateCanonicalEmails() {
+        jdbcTemplate.update("UPDATE users_db SET email_canonical = LOWER(email) "
+                + "WHERE email_canonical IS NULL AND email IS NOT NULL");
+    }
+
+    private void migratePaymentPeriods() {
+        if (!columnExists("EMPLOYEE_SALARY_DB", "PERIOD")) {
+            return;
+        }
+
+        jdbcTemplate.update("UPDATE employee_salary_db "
+                + "SET period_key = CAST(SUBSTRING(period, 4, 4) AS INT) * 100 + CAST(SUBSTRING(period, 1, 2) AS INT) "
+                + "WHERE period_key = 0 AND period IS NOT NULL");
+    }
+
+    private void migrateEmployeeEmails() {
+        int removedDuplicates = jdbcTemplate.update("DELETE FROM employee_salary_db p WHERE EXISTS ("
+                + "SELECT 1 FROM employee_salary_db q WHERE LOWER(q.employee_email) = LOWER(p.employee_email) "
+                + "AND q.period_key = p.period_key AND q.id > p.id)");
+        int lowercased = jdbcTemplate.update("UPDATE employee_salary_db SET employee_email = LOWER(employee_email) "
+                + "WHERE employee_email <> LOWER(employee_email)");
+
+        if (removedDuplicates > 0 || lowercased > 0) {
+            jdbcTemplate.update("DELETE FROM payroll_summary");
+        }
+    }
+
+    private void addPaymentPeriodConstraint() {
+        jdbcTemplate.execute("ALTER TABLE employee_salary_db ADD CONSTRAINT IF NOT EXISTS "
+                + "uk_employee_salary_period_key UNIQUE (employee_email, period_key)");
+    }
 
+    private void migrateEventLogTimestamps() {
+        if (!columnExists("EVENT_LOGS", "DATE")) {
+            return;
         }
+
+        int lastId = 0;
+        List<Map<String, Object>> rows;
+
+        do {
+            rows = jdbcTemplate.queryForList("SELECT id, date FROM event_logs "
+                    + "WHERE created_at = 0 AND date IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                    lastId, MIGRATION_CHUNK_SIZE);
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).intValue();
+                try {
+                    long createdAt = EventLog.parseDate((String) row.get("date"));
+                    updates.add(new Object[]{createdAt, EventLog.partitionOf(createdAt), lastId});
+                } catch (DateTimeParseException e) {
+
+                }
+            }
+
+            jdbcTemplate.batchUpdate("UPDATE event_logs SET created_at = ?, partition_month = ? WHERE id = ?", updates);
+        } while (rows.size() == MIGRATION_CHUNK_SIZE);
+    }
+
+    private void initPayrollSummary() {
+        jdbcTemplate.update("INSERT INTO payroll_summary "
+                + "(period_key, headcount, total_salary, min_salary, max_salary, updated_at) "
+                + "SELECT period_key, COUNT(*), SUM(salary), MIN(salary), MAX(salary), ? FROM employee_salary_db "
+                + "WHERE NOT EXISTS (SELECT 1 FROM payroll_summary) GROUP BY period_key",
+                System.currentTimeMillis());
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND COLUMN_NAME = ?", Integer.class, table, column);
+        return count != null && count > 0;
     }
 }
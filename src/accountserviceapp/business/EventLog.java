@@ -1,33 +1,111 @@
 package accountserviceapp.business;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "event_logs")
+@Table(name = "event_logs", indexes = {
+        @Index(name = "idx_event_logs_created_at", columnList = "created_at"),
+        @Index(name = "idx_event_logs_partition_month", columnList = "partition_month"),
+        @Index(name = "idx_event_logs_action_created_at", columnList = "action, created_at, id"),
+        @Index(name = "idx_event_logs_subject_created_at", columnList = "subject, created_at, id"),
+        @Index(name = "idx_event_logs_object_created_at", columnList = "object, created_at, id"),
+        @Index(name = "idx_event_logs_path_created_at", columnList = "path, created_at, id"),
+        @Index(name = "uk_event_logs_journal_sequence", columnList = "journal_sequence", unique = true)
+})
 @NoArgsConstructor
+@JsonPropertyOrder({"date", "action", "subject", "object", "path"})
 public class EventLog {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZONE);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @JsonIgnore
     private int id;
 
-    private String date;
+    @JsonIgnore
+    @Column(name = "created_at")
+    @ColumnDefault("0")
+    @Setter(AccessLevel.NONE)
+    private long createdAt;
+
+    @JsonIgnore
+    @Column(name = "partition_month")
+    @ColumnDefault("0")
+    @Setter(AccessLevel.NONE)
+    private int partitionMonth;
+
+    @JsonIgnore
+    @Column(name = "journal_sequence")
+    private Long journalSequence;
+
     private String action;
     private String subject;
     private String object;
     private String path;
 
-    public EventLog(String date, String action, String subject, String object, String path) {
-        this.date = date;
+    public EventLog(String action, String subject, String object, String path) {
+        this(System.currentTimeMillis(), action, subject, object, path);
+    }
+
+    public EventLog(long createdAt, String action, String subject, String object, String path) {
+        setCreatedAt(createdAt);
         this.action = action;
         this.subject = subject;
         this.object = object;
         this.path = path;
     }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+        this.partitionMonth = partitionOf(createdAt);
+    }
+
+    @JsonProperty("date")
+    public String getDate() {
+        return formatDate(createdAt);
+    }
+
+    public static int partitionOf(long epochMillis) {
+        ZonedDateTime dateTime = toDateTime(epochMillis);
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+
+    public static int partitionOf(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    public static long startOfPartition(int partitionMonth) {
+        return YearMonth.of(partitionMonth / 100, partitionMonth % 100)
+                .atDay(1).atStartOfDay(ZONE).toInstant().toEpochMilli();
+    }
+
+    public static String formatDate(long epochMillis) {
+        return DATE_FORMATTER.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    public static ZonedDateTime toDateTime(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZONE);
+    }
+
+    public static long parseDate(String date) {
+        return ZonedDateTime.parse(date, DATE_FORMATTER).toInstant().toEpochMilli();
+    }
 }
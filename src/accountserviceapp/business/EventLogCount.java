@@ -0,0 +1,3 @@
+package accountserviceapp.business;
+
+public record EventLogCount(long bucket, String action, long count) {}
@@ -0,0 +1,15 @@
+package accountserviceapp.business;
+
+import java.util.List;
+
+public record EventLogFilter(List<String> actions, String subject, String objectPrefix, String pathPrefix,
+                             Long from, Long to) {
+    public boolean matches(EventLog eventLog) {
+        return (from == null || eventLog.getCreatedAt() >= from)
+                && (to == null || eventLog.getCreatedAt() < to)
+                && (actions == null || actions.isEmpty() || actions.contains(eventLog.getAction()))
+                && (subject == null || subject.equals(eventLog.getSubject()))
+                && (objectPrefix == null || (eventLog.getObject() != null && eventLog.getObject().startsWith(objectPrefix)))
+                && (pathPrefix == null || (eventLog.getPath() != null && eventLog.getPath().startsWith(pathPrefix)));
+    }
+}
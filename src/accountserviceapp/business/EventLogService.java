@@ -1,21 +1,213 @@
 package accountserviceapp.business;
 
-import accountserviceapp.persistence.EventLogRepository;
+import accountserviceapp.exceptions.CustomExceptions;
+import accountserviceapp.presentation.EventLogSummaryDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class EventLogService {
-    private final EventLogRepository eventLogRepository;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final int DATE_ONLY_LENGTH = "yyyy-MM-dd".length();
+
+    private final EventLogStore eventLogStore;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
 
     @Autowired
-    public EventLogService(EventLogRepository eventLogRepository) {
-        this.eventLogRepository = eventLogRepository;
+    public EventLogService(EventLogStore eventLogStore, ObjectMapper objectMapper) {
+        this.eventLogStore = eventLogStore;
+        this.objectMapper = objectMapper;
+        this.exportWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
     }
 
     public List<EventLog> getAllEventLogs() {
-        return eventLogRepository.findAllByOrderByIdAsc();
+        List<EventLog> eventLogs = new ArrayList<>();
+        eventLogStore.forEach(eventLogs::add);
+        return eventLogs;
+    }
+
+    public ResponseEntity<?> getEventLogPage(Integer afterId, Integer limit) {
+        int pageSize = (limit == null || limit < 1) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        List<EventLog> eventLogs = eventLogStore.findPage(afterId == null ? 0 : afterId, pageSize);
+
+        if (eventLogs.isEmpty()) {
+            return ResponseEntity.ok(eventLogs);
+        }
+
+        return ResponseEntity.ok()
+                .header("X-Next-After-Id", String.valueOf(eventLogs.get(eventLogs.size() - 1).getId()))
+                .body(eventLogs);
+    }
+
+    public ResponseEntity<?> searchEventLogs(EventLogFilter filter, String after, Integer limit) {
+        int pageSize = (limit == null || limit < 1) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        long afterCreatedAt = Long.MIN_VALUE;
+        int afterId = 0;
+
+        if (after != null) {
+            String[] cursor = after.split("-", 2);
+            try {
+                afterCreatedAt = Long.parseLong(cursor[0]);
+                afterId = Integer.parseInt(cursor[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new CustomExceptions.InvalidAuditQueryException();
+            }
+        }
+
+        List<EventLog> eventLogs = eventLogStore.search(filter, afterCreatedAt, afterId, pageSize);
+
+        if (eventLogs.size() < pageSize) {
+            return ResponseEntity.ok(eventLogs);
+        }
+
+        EventLog last = eventLogs.get(eventLogs.size() - 1);
+        return ResponseEntity.ok()
+                .header("X-Next-After", last.getCreatedAt() + "-" + last.getId())
+                .body(eventLogs);
+    }
+
+    public List<EventLogSummaryDTO> summarizeEventLogs(EventLogFilter filter, String bucket) {
+        Function<EventLogCount, Long> bucketStart = switch (bucket.toLowerCase()) {
+            case "hour" -> count -> count.bucket() * HOUR_MILLIS;
+            case "day" -> count -> EventLog.toDateTime(count.bucket() * HOUR_MILLIS)
+                    .truncatedTo(ChronoUnit.DAYS).toInstant().toEpochMilli();
+            case "month" -> count -> EventLog.startOfPartition((int) count.bucket());
+            default -> throw new CustomExceptions.InvalidAuditQueryException();
+        };
+
+        List<EventLogCount> counts = bucket.equalsIgnoreCase("month")
+                ? eventLogStore.countByPartition(filter)
+                : eventLogStore.countByHour(filter);
+
+        Map<Long, Map<String, Long>> buckets = new TreeMap<>();
+        for (EventLogCount count : counts) {
+            buckets.computeIfAbsent(bucketStart.apply(count), start -> new TreeMap<>())
+                    .merge(count.action(), count.count(), Long::sum);
+        }
+
+        List<EventLogSummaryDTO> summary = new ArrayList<>();
+        buckets.forEach((start, actions) -> actions.forEach((action, count) ->
+                summary.add(new EventLogSummaryDTO(EventLog.formatDate(start), action, count))));
+        return summary;
+    }
+
+    public EventLogFilter createFilter(List<String> actions, String subject, String objectPrefix, String pathPrefix,
+                                       String from, String to) {
+        Long fromMillis = parseAuditTime(from);
+        Long toMillis = parseAuditTime(to);
+
+        if (fromMillis != null && toMillis != null && fromMillis >= toMillis) {
+            throw new CustomExceptions.InvalidAuditQueryException();
+        }
+
+        return new EventLogFilter(actions, subject, objectPrefix, pathPrefix, fromMillis, toMillis);
+    }
+
+    private Long parseAuditTime(String time) {
+        if (time == null) {
+            return null;
+        }
+
+        try {
+            return EventLog.parseDate(time.length() == DATE_ONLY_LENGTH ? time + " 00:00:00" : time);
+        } catch (DateTimeParseException e) {
+            throw new CustomExceptions.InvalidAuditQueryException();
+        }
+    }
+
+    public ExportFormat parseExportFormat(String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat == null) {
+            throw new CustomExceptions.InvalidAuditQueryException();
+        }
+
+        return exportFormat;
+    }
+
+    public void exportEventLogs(EventLogFilter filter, ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        try (OutputStream exportStream = new BufferedOutputStream(new GZIPOutputStream(outputStream), EXPORT_BUFFER_SIZE)) {
+            if (format == ExportFormat.CSV) {
+                exportStream.write(ExportFormat.csvRow("date", "action", "subject", "object", "path")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+
+            eventLogStore.forEach(filter, eventLog -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        exportStream.write(ExportFormat.csvRow(eventLog.getDate(), eventLog.getAction(),
+                                eventLog.getSubject(), eventLog.getObject(), eventLog.getPath())
+                                .getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        exportStream.write(exportWriter.writeValueAsBytes(eventLog));
+                        exportStream.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public long replayJournal() {
+        return eventLogStore.replayIntoDatabase();
+    }
+
+    public void streamEventLogs(Integer afterId, Integer limit, OutputStream outputStream) throws IOException {
+        int rowLimit = (limit == null || limit < 1) ? Integer.MAX_VALUE : Math.min(limit, MAX_PAGE_SIZE);
+
+        try (OutputStream ndjsonStream = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE)) {
+            eventLogStore.forEach(afterId == null ? 0 : afterId, rowLimit, eventLog -> {
+                try {
+                    ndjsonStream.write(exportWriter.writeValueAsBytes(eventLog));
+                    ndjsonStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void streamAllEventLogs(OutputStream outputStream) throws IOException {
+        try (SequenceWriter sequenceWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .writeValuesAsArray(outputStream)) {
+            eventLogStore.forEach(eventLog -> {
+                try {
+                    sequenceWriter.write(eventLog);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 }
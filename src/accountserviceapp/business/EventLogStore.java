@@ -0,0 +1,27 @@
+package accountserviceapp.business;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface EventLogStore {
+    void append(EventLog eventLog);
+
+    List<EventLog> findPage(int afterId, int limit);
+
+    void forEach(Consumer<EventLog> consumer);
+
+    void forEach(int afterId, int limit, Consumer<EventLog> consumer);
+
+    List<EventLog> search(EventLogFilter filter, long afterCreatedAt, int afterId, int limit);
+
+    List<EventLogCount> countByHour(EventLogFilter filter);
+
+    List<EventLogCount> countByPartition(EventLogFilter filter);
+
+    void forEach(EventLogFilter filter, Consumer<EventLog> consumer);
+
+    void applyRetention(int oldestKeptPartition) throws IOException;
+
+    long replayIntoDatabase();
+}
@@ -0,0 +1,181 @@
+package accountserviceapp.business;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class FailedLoginTracker {
+    public enum Outcome { FAILED, LOCKOUT, OVER_LIMIT }
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long windowMillis;
+    private final AtomicInteger trackedUsers = new AtomicInteger();
+
+    public FailedLoginTracker(@Value("${auth.failed-login.window-seconds:3600}") long windowSeconds,
+                              MeterRegistry meterRegistry) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.windowMillis = windowSeconds * 1000;
+        meterRegistry.gauge("auth.failed-login.tracked", trackedUsers);
+    }
+
+    public Outcome recordFailure(String canonicalEmail, int persistedAttempts) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(canonicalEmail);
+
+        synchronized (stripe) {
+            Attempts attempts = stripe.attempts.get(canonicalEmail);
+            if (attempts == null) {
+                attempts = new Attempts(persistedAttempts, now);
+                stripe.attempts.put(canonicalEmail, attempts);
+                trackedUsers.incrementAndGet();
+            }
+
+            attempts.prune(now - windowMillis);
+            attempts.add(now);
+
+            if (attempts.size < UserService.MAX_FAILED_ATTEMPTS) {
+                return Outcome.FAILED;
+            }
+
+            if (attempts.lockedOut) {
+                return Outcome.OVER_LIMIT;
+            }
+
+            attempts.lockedOut = true;
+            return Outcome.LOCKOUT;
+        }
+    }
+
+    public int getFailedAttempts(String canonicalEmail, int persistedAttempts) {
+        Stripe stripe = stripeFor(canonicalEmail);
+
+        synchronized (stripe) {
+            Attempts attempts = stripe.attempts.get(canonicalEmail);
+            if (attempts == null) {
+                return persistedAttempts;
+            }
+
+            attempts.prune(System.currentTimeMillis() - windowMillis);
+            return attempts.size;
+        }
+    }
+
+    public void markPersisted(String canonicalEmail) {
+        Stripe stripe = stripeFor(canonicalEmail);
+
+        synchronized (stripe) {
+            Attempts attempts = stripe.attempts.get(canonicalEmail);
+            if (attempts != null) {
+                attempts.dirty = false;
+            }
+        }
+    }
+
+    public void reset(String canonicalEmail) {
+        Stripe stripe = stripeFor(canonicalEmail);
+
+        synchronized (stripe) {
+            if (stripe.attempts.remove(canonicalEmail) != null) {
+                trackedUsers.decrementAndGet();
+            }
+            stripe.resetSinceDrain.add(canonicalEmail);
+        }
+    }
+
+    public boolean wasResetSinceDrain(String canonicalEmail) {
+        Stripe stripe = stripeFor(canonicalEmail);
+
+        synchronized (stripe) {
+            return stripe.resetSinceDrain.contains(canonicalEmail);
+        }
+    }
+
+    public Map<String, Integer> drainDirty() {
+        Map<String, Integer> dirtyAttempts = new HashMap<>();
+        long cutoff = System.currentTimeMillis() - windowMillis;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.resetSinceDrain.clear();
+                Iterator<Map.Entry<String, Attempts>> iterator = stripe.attempts.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Attempts> entry = iterator.next();
+                    Attempts attempts = entry.getValue();
+                    attempts.prune(cutoff);
+
+                    if (attempts.dirty) {
+                        dirtyAttempts.put(entry.getKey(), attempts.size);
+                        attempts.dirty = false;
+                    }
+
+                    if (attempts.size == 0) {
+                        iterator.remove();
+                        trackedUsers.decrementAndGet();
+                    }
+                }
+            }
+        }
+
+        return dirtyAttempts;
+    }
+
+    private Stripe stripeFor(String canonicalEmail) {
+        return stripes[(canonicalEmail.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static class Stripe {
+        private final Map<String, Attempts> attempts = new HashMap<>();
+        private final Set<String> resetSinceDrain = new HashSet<>();
+    }
+
+    private static class Attempts {
+        private final long[] timestamps = new long[UserService.MAX_FAILED_ATTEMPTS];
+        private int head;
+        private int size;
+        private boolean dirty;
+        private boolean lockedOut;
+
+        private Attempts(int persistedAttempts, long now) {
+            for (int i = 0; i < Math.min(persistedAttempts, timestamps.length); i++) {
+                add(now);
+            }
+            this.dirty = false;
+            this.lockedOut = size == timestamps.length;
+        }
+
+        private void add(long timestamp) {
+            if (size == timestamps.length) {
+                head = (head + 1) % timestamps.length;
+                size--;
+            }
+
+            timestamps[(head + size) % timestamps.length] = timestamp;
+            size++;
+            dirty = true;
+        }
+
+        private void prune(long cutoff) {
+            while (size > 0 && timestamps[head] < cutoff) {
+                head = (head + 1) % timestamps.length;
+                size--;
+                dirty = true;
+            }
+
+            if (size < timestamps.length) {
+                lockedOut = false;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package accountserviceapp.business;
 
+import accountserviceapp.exceptions.CustomExceptions;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -31,9 +32,21 @@ public class Group implements Comparable<Group> {
     @JsonIgnore
     private Set<User> users = new HashSet<>();
 
+    public Group(Role role) {
+        this.role = role.getAuthority();
+        this.type = role.getType();
+    }
+
     public Group(String role) {
-        this.role = role;
-        this.type = role.matches("ROLE_ADMINISTRATOR") ? "administrative" : "business";
+        this(requireRole(role));
+    }
+
+    private static Role requireRole(String authority) {
+        Role role = Role.fromAuthority(authority);
+        if (role == null) {
+            throw new CustomExceptions.RoleNotFoundException();
+        }
+        return role;
     }
 
     @Override
@@ -0,0 +1,102 @@
+package accountserviceapp.business;
+
+import accountserviceapp.exceptions.CustomExceptions;
+import accountserviceapp.persistence.EventLogJdbcRepository;
+import accountserviceapp.persistence.EventLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "audit.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcEventLogStore implements EventLogStore {
+    private final AuditLogWriter auditLogWriter;
+    private final EventLogRepository eventLogRepository;
+    private final EventLogJdbcRepository eventLogJdbcRepository;
+    private final AuditArchive auditArchive;
+    private final MeterRegistry meterRegistry;
+    private final int deleteBatchSize;
+
+    public JdbcEventLogStore(AuditLogWriter auditLogWriter,
+                             EventLogRepository eventLogRepository,
+                             EventLogJdbcRepository eventLogJdbcRepository,
+                             AuditArchive auditArchive,
+                             MeterRegistry meterRegistry,
+                             @Value("${audit.retention.delete-batch-size:1000}") int deleteBatchSize) {
+        this.auditLogWriter = auditLogWriter;
+        this.eventLogRepository = eventLogRepository;
+        this.eventLogJdbcRepository = eventLogJdbcRepository;
+        this.auditArchive = auditArchive;
+        this.meterRegistry = meterRegistry;
+        this.deleteBatchSize = Math.max(1, deleteBatchSize);
+    }
+
+    @Override
+    public void append(EventLog eventLog) {
+        auditLogWriter.enqueue(eventLog);
+    }
+
+    @Override
+    public List<EventLog> findPage(int afterId, int limit) {
+        return eventLogRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void forEach(Consumer<EventLog> consumer) {
+        eventLogJdbcRepository.forEachEventLog(consumer);
+    }
+
+    @Override
+    public void forEach(int afterId, int limit, Consumer<EventLog> consumer) {
+        eventLogJdbcRepository.forEachEventLog(afterId, limit, consumer);
+    }
+
+    @Override
+    public List<EventLog> search(EventLogFilter filter, long afterCreatedAt, int afterId, int limit) {
+        return eventLogJdbcRepository.search(filter, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public List<EventLogCount> countByHour(EventLogFilter filter) {
+        return eventLogJdbcRepository.countByHour(filter);
+    }
+
+    @Override
+    public List<EventLogCount> countByPartition(EventLogFilter filter) {
+        return eventLogJdbcRepository.countByPartition(filter);
+    }
+
+    @Override
+    public void forEach(EventLogFilter filter, Consumer<EventLog> consumer) {
+        eventLogJdbcRepository.forEachEventLog(filter, consumer);
+    }
+
+    @Override
+    public void applyRetention(int oldestKeptPartition) throws IOException {
+        for (int partitionMonth : eventLogJdbcRepository.findPartitionsBefore(oldestKeptPartition)) {
+            int archivedUpToId = Integer.MAX_VALUE;
+
+            if (auditArchive.isEnabled()) {
+                String prefix = "event_logs_" + partitionMonth + "_";
+                int lastArchivedId = (int) auditArchive.findLastArchivedId(prefix);
+                archivedUpToId = (int) auditArchive.archive(prefix, lastArchivedId, consumer ->
+                        eventLogJdbcRepository.forEachEventLogInPartition(partitionMonth, lastArchivedId, consumer));
+            }
+
+            int deletedRows = eventLogJdbcRepository.deletePartition(partitionMonth, archivedUpToId, deleteBatchSize);
+            meterRegistry.counter("audit.retention.rows", "operation", "deleted").increment(deletedRows);
+            meterRegistry.counter("audit.retention.partitions", "operation", "deleted").increment();
+        }
+    }
+
+    @Override
+    public long replayIntoDatabase() {
+        throw new CustomExceptions.AuditJournalDisabledException();
+    }
+}
@@ -0,0 +1,493 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.EventLogJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+@Component
+@ConditionalOnProperty(name = "audit.store", havingValue = "journal")
+public class JournalEventLogStore implements EventLogStore, DisposableBean {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "replayed.checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final int NULL_LENGTH = -1;
+    private static final int REPLAY_BATCH_SIZE = 1000;
+    private static final int INDEX_INTERVAL = 64;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final String ARCHIVE_PREFIX = "audit_journal_";
+    private static final Comparator<EventLog> SEARCH_ORDER =
+            Comparator.comparingLong(EventLog::getCreatedAt).thenComparingInt(EventLog::getId);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final EventLogJdbcRepository eventLogJdbcRepository;
+    private final AuditArchive auditArchive;
+    private final MeterRegistry meterRegistry;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object replayLock = new Object();
+    private final Counter appendedCounter;
+    private final Counter corruptCounter;
+    private final Counter replayedCounter;
+
+    private volatile Segment activeSegment;
+
+    public JournalEventLogStore(@Value("${audit.journal.dir:../audit_journal}") String directory,
+                                @Value("${audit.journal.segment-size-mb:64}") int segmentSizeMb,
+                                EventLogJdbcRepository eventLogJdbcRepository,
+                                AuditArchive auditArchive,
+                                MeterRegistry meterRegistry) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.eventLogJdbcRepository = eventLogJdbcRepository;
+        this.auditArchive = auditArchive;
+        this.meterRegistry = meterRegistry;
+        this.appendedCounter = meterRegistry.counter("audit.journal.records", "operation", "appended");
+        this.corruptCounter = meterRegistry.counter("audit.journal.records", "operation", "corrupt");
+        this.replayedCounter = meterRegistry.counter("audit.journal.records", "operation", "replayed");
+        meterRegistry.gaugeMapSize("audit.journal.segments", Tags.empty(), segments);
+
+        Files.createDirectories(this.directory);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        List<Path> segmentFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentFiles = files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path segmentFile : segmentFiles) {
+            String fileName = segmentFile.getFileName().toString();
+            long firstSequence = Long.parseLong(
+                    fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = Segment.open(segmentFile, firstSequence, (int) Files.size(segmentFile));
+            scan(segment);
+            segments.put(firstSequence, segment);
+        }
+
+        long checkpoint = readCheckpoint();
+        Segment lastSegment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        long nextSequence = lastSegment == null ? 1 : lastSegment.firstSequence + lastSegment.recordCount;
+
+        activeSegment = lastSegment != null && nextSequence > checkpoint
+                ? lastSegment
+                : createSegment(Math.max(nextSequence, checkpoint + 1));
+    }
+
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long recordCount = 0;
+
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+
+            if (length < 0 || position + HEADER_BYTES + length > buffer.capacity()
+                    || buffer.getInt(position + 4) != checksum(buffer, position + HEADER_BYTES, length)) {
+                corruptCounter.increment();
+                for (int i = position; i < buffer.capacity(); i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+
+            segment.indexRecord(recordCount, position);
+            segment.lastCreatedAt = Math.max(segment.lastCreatedAt, buffer.getLong(position + HEADER_BYTES));
+            position += HEADER_BYTES + length;
+            recordCount++;
+        }
+
+        segment.recordCount = recordCount;
+        segment.writePosition = position;
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path segmentFile = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(segmentFile, firstSequence, segmentSize);
+        segments.put(firstSequence, segment);
+        return segment;
+    }
+
+    @Override
+    public synchronized void append(EventLog eventLog) {
+        byte[][] fields = {
+                encode(eventLog.getAction()),
+                encode(eventLog.getSubject()),
+                encode(eventLog.getObject()),
+                encode(eventLog.getPath())
+        };
+
+        int length = Long.BYTES;
+        for (byte[] field : fields) {
+            length += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+
+        if (HEADER_BYTES + length > segmentSize) {
+            throw new IllegalArgumentException("Audit record of " + length + " bytes does not fit in a journal segment");
+        }
+
+        if (activeSegment.firstSequence + activeSegment.recordCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Audit journal sequence exceeds the event_logs id range");
+        }
+
+        try {
+            if (activeSegment.writePosition + HEADER_BYTES + length > activeSegment.buffer.capacity()) {
+                activeSegment.buffer.force();
+                activeSegment = createSegment(activeSegment.firstSequence + activeSegment.recordCount);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        MappedByteBuffer buffer = activeSegment.buffer;
+        int start = activeSegment.writePosition;
+        activeSegment.indexRecord(activeSegment.recordCount, start);
+        int position = start + HEADER_BYTES;
+
+        buffer.putLong(position, eventLog.getCreatedAt());
+        position += Long.BYTES;
+        for (byte[] field : fields) {
+            buffer.putInt(position, field == null ? NULL_LENGTH : field.length);
+            position += Integer.BYTES;
+            if (field != null) {
+                buffer.put(position, field);
+                position += field.length;
+            }
+        }
+
+        buffer.putInt(start + 4, checksum(buffer, start + HEADER_BYTES, length));
+        buffer.putInt(start, length);
+
+        activeSegment.lastCreatedAt = Math.max(activeSegment.lastCreatedAt, eventLog.getCreatedAt());
+        activeSegment.recordCount++;
+        activeSegment.writePosition = position;
+        appendedCounter.increment();
+    }
+
+    @Override
+    public List<EventLog> findPage(int afterId, int limit) {
+        List<EventLog> eventLogs = new ArrayList<>(Math.min(limit, 1024));
+        read(afterId, eventLog -> {
+            eventLogs.add(eventLog);
+            return eventLogs.size() < limit;
+        });
+        return eventLogs;
+    }
+
+    @Override
+    public void forEach(Consumer<EventLog> consumer) {
+        forEach(null, consumer);
+    }
+
+    @Override
+    public void forEach(int afterId, int limit, Consumer<EventLog> consumer) {
+        int[] remaining = {limit};
+        if (limit > 0) {
+            read(afterId, eventLog -> {
+                consumer.accept(eventLog);
+                return --remaining[0] > 0;
+            });
+        }
+    }
+
+    @Override
+    public List<EventLog> search(EventLogFilter filter, long afterCreatedAt, int afterId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<EventLog> page = new PriorityQueue<>(Math.min(limit, 1024), SEARCH_ORDER.reversed());
+        for (Segment segment : segments.values()) {
+            if (segment.lastCreatedAt < afterCreatedAt) {
+                continue;
+            }
+
+            readSegment(segment, 0, eventLog -> {
+                boolean afterCursor = eventLog.getCreatedAt() > afterCreatedAt
+                        || (eventLog.getCreatedAt() == afterCreatedAt && eventLog.getId() > afterId);
+                if (afterCursor && filter.matches(eventLog)) {
+                    if (page.size() < limit) {
+                        page.add(eventLog);
+                    } else if (SEARCH_ORDER.compare(eventLog, page.peek()) < 0) {
+                        page.poll();
+                        page.add(eventLog);
+                    }
+                }
+                return true;
+            });
+        }
+
+        List<EventLog> eventLogs = new ArrayList<>(page);
+        eventLogs.sort(SEARCH_ORDER);
+        return eventLogs;
+    }
+
+    @Override
+    public List<EventLogCount> countByHour(EventLogFilter filter) {
+        return countBy(eventLog -> eventLog.getCreatedAt() / HOUR_MILLIS, filter);
+    }
+
+    @Override
+    public List<EventLogCount> countByPartition(EventLogFilter filter) {
+        return countBy(EventLog::getPartitionMonth, filter);
+    }
+
+    private List<EventLogCount> countBy(ToLongFunction<EventLog> bucket, EventLogFilter filter) {
+        Map<Long, Map<String, long[]>> counts = new HashMap<>();
+        forEach(filter, eventLog -> counts
+                .computeIfAbsent(bucket.applyAsLong(eventLog), key -> new HashMap<>())
+                .computeIfAbsent(eventLog.getAction(), action -> new long[1])[0]++);
+
+        List<EventLogCount> eventLogCounts = new ArrayList<>();
+        counts.forEach((bucketKey, actions) -> actions.forEach((action, count) ->
+                eventLogCounts.add(new EventLogCount(bucketKey, action, count[0]))));
+        return eventLogCounts;
+    }
+
+    @Override
+    public void forEach(EventLogFilter filter, Consumer<EventLog> consumer) {
+        read(0, eventLog -> {
+            if (filter == null || filter.matches(eventLog)) {
+                consumer.accept(eventLog);
+            }
+            return true;
+        });
+    }
+
+    private void read(long afterSequence, Predicate<EventLog> consumer) {
+        Long fromKey = segments.floorKey(afterSequence + 1);
+
+        for (Segment segment : segments.tailMap(fromKey == null ? 0L : fromKey, true).values()) {
+            if (!readSegment(segment, afterSequence, consumer)) {
+                return;
+            }
+        }
+    }
+
+    private boolean readSegment(Segment segment, long afterSequence, Predicate<EventLog> consumer) {
+        int end = segment.writePosition;
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        long sequence = segment.firstSequence;
+
+        int indexSize = segment.indexSize;
+        int[] index = segment.index;
+        long slot = Math.min((afterSequence + 1 - segment.firstSequence) / INDEX_INTERVAL, indexSize - 1);
+        if (slot > 0) {
+            position = index[(int) slot];
+            sequence += slot * INDEX_INTERVAL;
+        }
+
+        while (position < end) {
+            int length = buffer.getInt(position);
+            if (sequence > afterSequence && !consumer.test(decode(buffer, position + HEADER_BYTES, sequence))) {
+                return false;
+            }
+
+            position += HEADER_BYTES + length;
+            sequence++;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void applyRetention(int oldestKeptPartition) throws IOException {
+        long cutoff = EventLog.startOfPartition(oldestKeptPartition);
+
+        for (Segment segment : segments.values()) {
+            if (segment == activeSegment || segment.lastCreatedAt >= cutoff) {
+                return;
+            }
+
+            if (auditArchive.isEnabled()) {
+                long lastArchivedId = auditArchive.findLastArchivedId(ARCHIVE_PREFIX);
+                auditArchive.archive(ARCHIVE_PREFIX, lastArchivedId, consumer -> readSegment(segment, lastArchivedId,
+                        eventLog -> {
+                            consumer.accept(eventLog);
+                            return true;
+                        }));
+            }
+
+            segments.remove(segment.firstSequence);
+            Files.delete(segment.file);
+            meterRegistry.counter("audit.retention.rows", "operation", "deleted").increment(segment.recordCount);
+            meterRegistry.counter("audit.retention.segments", "operation", "deleted").increment();
+        }
+    }
+
+    @Override
+    public long replayIntoDatabase() {
+        synchronized (replayLock) {
+            long checkpoint = readCheckpoint();
+            List<EventLog> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+            long[] replayed = {0};
+
+            read(checkpoint, eventLog -> {
+                batch.add(eventLog);
+                if (batch.size() == REPLAY_BATCH_SIZE) {
+                    replayed[0] += flushReplayBatch(batch);
+                }
+                return true;
+            });
+
+            if (!batch.isEmpty()) {
+                replayed[0] += flushReplayBatch(batch);
+            }
+
+            return replayed[0];
+        }
+    }
+
+    private int flushReplayBatch(List<EventLog> batch) {
+        eventLogJdbcRepository.insertAllFromJournal(batch);
+        writeCheckpoint(batch.get(batch.size() - 1).getId());
+        int replayed = batch.size();
+        replayedCounter.increment(replayed);
+        batch.clear();
+        return replayed;
+    }
+
+    private long readCheckpoint() {
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        try {
+            return Files.exists(checkpointFile) ? Long.parseLong(Files.readString(checkpointFile).trim()) : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCheckpoint(long sequence) {
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        Path tempFile = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(tempFile, Long.toString(sequence));
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.journal.force-interval-ms:1000}")
+    public void force() {
+        Segment segment;
+        synchronized (this) {
+            segment = activeSegment;
+        }
+        segment.buffer.force();
+    }
+
+    @Override
+    public void destroy() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static EventLog decode(MappedByteBuffer buffer, int position, long sequence) {
+        long createdAt = buffer.getLong(position);
+        position += Long.BYTES;
+
+        String[] fields = new String[4];
+        for (int i = 0; i < fields.length; i++) {
+            int length = buffer.getInt(position);
+            position += Integer.BYTES;
+            if (length != NULL_LENGTH) {
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        EventLog eventLog = new EventLog(createdAt, fields[0], fields[1], fields[2], fields[3]);
+        eventLog.setId(Math.toIntExact(sequence));
+        return eventLog;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long firstSequence;
+        private final MappedByteBuffer buffer;
+        private volatile int writePosition;
+        private volatile long recordCount;
+        private volatile long lastCreatedAt;
+        private volatile int[] index = new int[16];
+        private volatile int indexSize;
+
+        private Segment(Path file, long firstSequence, MappedByteBuffer buffer) {
+            this.file = file;
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+
+        private void indexRecord(long recordNumber, int position) {
+            if (recordNumber % INDEX_INTERVAL != 0) {
+                return;
+            }
+
+            int[] currentIndex = index;
+            if (indexSize == currentIndex.length) {
+                currentIndex = Arrays.copyOf(currentIndex, currentIndex.length * 2);
+            }
+            currentIndex[indexSize] = position;
+            index = currentIndex;
+            indexSize++;
+        }
+
+        private static Segment open(Path file, long firstSequence, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(file, firstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package accountserviceapp.business;
 
-import accountserviceapp.persistence.EventLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 @Service
 public class LoggingService {
-    private final EventLogRepository eventLogRepository;
+    private final EventLogStore eventLogStore;
+    private final MeterRegistry meterRegistry;
 
-    public LoggingService(EventLogRepository eventLogRepository) {
-        this.eventLogRepository = eventLogRepository;
+    public LoggingService(EventLogStore eventLogStore, MeterRegistry meterRegistry) {
+        this.eventLogStore = eventLogStore;
+        this.meterRegistry = meterRegistry;
     }
 
     public void logCurrEvent(EventLog eventLog) {
-        eventLogRepository.save(eventLog);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            eventLogStore.append(eventLog);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("audit.event.log", "action", eventLog.getAction(), "outcome", outcome));
+        }
     }
 }
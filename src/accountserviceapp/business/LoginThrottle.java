@@ -0,0 +1,195 @@
+package accountserviceapp.business;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LoginThrottle {
+    public enum Scope { IP, USER }
+
+    private final boolean enabled;
+    private final Buckets ipBuckets;
+    private final Buckets userBuckets;
+    private final Map<ThrottleKey, LongAdder> throttled = new ConcurrentHashMap<>();
+    private final LongAdder throttledOverflow = new LongAdder();
+    private final int maxSize;
+    private final LoggingService loggingService;
+    private final MeterRegistry meterRegistry;
+
+    public LoginThrottle(@Value("${auth.throttle.enabled:true}") boolean enabled,
+                         @Value("${auth.throttle.ip.capacity:50}") int ipCapacity,
+                         @Value("${auth.throttle.ip.refill-per-second:20}") double ipRefillPerSecond,
+                         @Value("${auth.throttle.user.capacity:10}") int userCapacity,
+                         @Value("${auth.throttle.user.refill-per-second:2}") double userRefillPerSecond,
+                         @Value("${auth.throttle.max-size:100000}") int maxSize,
+                         @Value("${auth.throttle.idle-seconds:300}") long idleSeconds,
+                         LoggingService loggingService,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ipBuckets = new Buckets(ipCapacity, ipRefillPerSecond, maxSize, idleSeconds * 1000);
+        this.userBuckets = new Buckets(userCapacity, userRefillPerSecond, maxSize, idleSeconds * 1000);
+        this.loggingService = loggingService;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("auth.throttle.buckets", Tags.of("scope", "ip"), ipBuckets.buckets);
+        meterRegistry.gaugeMapSize("auth.throttle.buckets", Tags.of("scope", "user"), userBuckets.buckets);
+        meterRegistry.gaugeMapSize("auth.throttle.throttled", Tags.empty(), throttled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Scope tryAcquire(String remoteAddress, String username) {
+        if (!ipBuckets.tryAcquire(remoteAddress)) {
+            recordThrottled(Scope.IP, remoteAddress);
+            return Scope.IP;
+        }
+
+        if (username != null && userBuckets.isExhausted(username)) {
+            recordThrottled(Scope.USER, username);
+            return Scope.USER;
+        }
+
+        return null;
+    }
+
+    public void recordFailure(String username) {
+        if (enabled) {
+            userBuckets.tryAcquire(username);
+        }
+    }
+
+    public long retryAfterSeconds(Scope scope, String key) {
+        Buckets buckets = scope == Scope.IP ? ipBuckets : userBuckets;
+        return Math.max(1, (buckets.waitMillis(key) + 999) / 1000);
+    }
+
+    private void recordThrottled(Scope scope, String key) {
+        meterRegistry.counter("auth.throttled", "scope", scope.name().toLowerCase()).increment();
+        ThrottleKey throttleKey = new ThrottleKey(scope, key);
+
+        if (!throttled.containsKey(throttleKey) && throttled.size() >= maxSize) {
+            throttledOverflow.increment();
+            return;
+        }
+
+        throttled.compute(throttleKey, (k, adder) -> {
+            LongAdder counter = adder == null ? new LongAdder() : adder;
+            counter.increment();
+            return counter;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${auth.throttle.audit-interval-ms:60000}")
+    public void logThrottledRequests() {
+        for (Map.Entry<ThrottleKey, LongAdder> entry : throttled.entrySet()) {
+            ThrottleKey key = entry.getKey();
+            LongAdder adder = entry.getValue();
+            long count = adder.sumThenReset();
+
+            if (count == 0) {
+                throttled.remove(key, adder);
+                continue;
+            }
+
+            loggingService.logCurrEvent(new EventLog(
+                    "THROTTLED",
+                    key.scope() == Scope.USER ? key.key() : "Anonymous",
+                    key.scope() == Scope.USER
+                            ? "Throttled " + count + " requests for user " + key.key()
+                            : "Throttled " + count + " requests from " + key.key(),
+                    null)
+            );
+        }
+
+        long overflowCount = throttledOverflow.sumThenReset();
+        if (overflowCount > 0) {
+            loggingService.logCurrEvent(new EventLog(
+                    "THROTTLED",
+                    "Anonymous",
+                    "Throttled " + overflowCount + " requests from other clients",
+                    null)
+            );
+        }
+
+        ipBuckets.evictIdle();
+        userBuckets.evictIdle();
+    }
+
+    private static class Buckets {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong();
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final int maxSize;
+        private final long idleNanos;
+
+        private Buckets(int capacity, double refillPerSecond, int maxSize, long idleMillis) {
+            this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+            this.burstNanos = intervalNanos * (capacity - 1);
+            this.maxSize = maxSize;
+            this.idleNanos = idleMillis * 1_000_000L;
+        }
+
+        private boolean tryAcquire(String key) {
+            AtomicLong bucket = bucketFor(key);
+            long now = System.nanoTime();
+
+            while (true) {
+                long theoreticalArrival = bucket.get();
+                long next = Math.max(theoreticalArrival, now) + intervalNanos;
+
+                if (next - now > burstNanos + intervalNanos) {
+                    return false;
+                }
+
+                if (bucket.compareAndSet(theoreticalArrival, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean isExhausted(String key) {
+            AtomicLong bucket = buckets.getOrDefault(key, buckets.size() >= maxSize ? overflow : null);
+            return bucket != null && bucket.get() - System.nanoTime() > burstNanos;
+        }
+
+        private long waitMillis(String key) {
+            AtomicLong bucket = buckets.getOrDefault(key, overflow);
+            long wait = bucket.get() - burstNanos - System.nanoTime();
+            return Math.max(0, wait / 1_000_000L);
+        }
+
+        private AtomicLong bucketFor(String key) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+
+            if (buckets.size() >= maxSize) {
+                evictIdle();
+                if (buckets.size() >= maxSize) {
+                    return overflow;
+                }
+            }
+
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime() - burstNanos - intervalNanos));
+        }
+
+        private void evictIdle() {
+            long cutoff = System.nanoTime() - idleNanos;
+            buckets.values().removeIf(bucket -> bucket.get() - cutoff < 0);
+        }
+    }
+
+    private record ThrottleKey(Scope scope, String key) {}
+}
@@ -0,0 +1,57 @@
+package accountserviceapp.business;
+
+class LongKeySet {
+    private static final long EMPTY = 0L;
+
+    private long[] slots;
+    private int size;
+
+    LongKeySet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.slots = new long[capacity];
+    }
+
+    boolean add(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key must be non-zero");
+        }
+
+        if ((size + 1) * 2 > slots.length) {
+            resize();
+        }
+
+        int mask = slots.length - 1;
+        int index = mix(key) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        slots[index] = key;
+        size++;
+        return true;
+    }
+
+    private void resize() {
+        long[] oldSlots = slots;
+        slots = new long[oldSlots.length * 2];
+        int mask = slots.length - 1;
+
+        for (long key : oldSlots) {
+            if (key != EMPTY) {
+                int index = mix(key) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = key;
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
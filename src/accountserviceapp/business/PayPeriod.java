@@ -0,0 +1,75 @@
+package accountserviceapp.business;
+
+public final class PayPeriod {
+    public static final int INVALID = -1;
+
+    private static final String[] MONTH_NAMES = {
+            "January", "February", "March", "April", "May", "June",
+            "July", "August", "September", "October", "November", "December"
+    };
+
+    private PayPeriod() {}
+
+    public static int parse(CharSequence period) {
+        if (period == null || period.length() != 7 || period.charAt(2) != '-') {
+            return INVALID;
+        }
+
+        int month = 0;
+        for (int i = 0; i < 2; i++) {
+            int digit = Character.digit(period.charAt(i), 10);
+            if (digit < 0) {
+                return INVALID;
+            }
+            month = month * 10 + digit;
+        }
+
+        int year = 0;
+        for (int i = 3; i < 7; i++) {
+            int digit = Character.digit(period.charAt(i), 10);
+            if (digit < 0) {
+                return INVALID;
+            }
+            year = year * 10 + digit;
+        }
+
+        return (month < 1 || month > 12) ? INVALID : year * 100 + month;
+    }
+
+    public static boolean isValid(int periodKey) {
+        int month = month(periodKey);
+        return periodKey > 0 && month >= 1 && month <= 12;
+    }
+
+    public static int year(int periodKey) {
+        return periodKey / 100;
+    }
+
+    public static int month(int periodKey) {
+        return periodKey % 100;
+    }
+
+    public static String format(int periodKey) {
+        if (!isValid(periodKey)) {
+            return null;
+        }
+
+        int month = month(periodKey);
+        int year = year(periodKey);
+        char[] chars = {
+                (char) ('0' + month / 10), (char) ('0' + month % 10), '-',
+                (char) ('0' + year / 1000), (char) ('0' + year / 100 % 10),
+                (char) ('0' + year / 10 % 10), (char) ('0' + year % 10)
+        };
+        return new String(chars);
+    }
+
+    public static String formatLong(int periodKey) {
+        int year = year(periodKey);
+        StringBuilder formatted = new StringBuilder(14).append(MONTH_NAMES[month(periodKey) - 1]).append('-');
+        for (int divisor = 1000; divisor > 1 && year < divisor; divisor /= 10) {
+            formatted.append('0');
+        }
+        return formatted.append(year).toString();
+    }
+}
@@ -0,0 +1,77 @@
+package accountserviceapp.business;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "payroll_summary")
+@NoArgsConstructor
+@JsonPropertyOrder({"period", "headcount", "total", "min", "max", "updated"})
+public class PayrollSummary {
+    @Id
+    @Column(name = "period_key")
+    @JsonIgnore
+    private int periodKey;
+
+    private long headcount;
+
+    @Column(name = "total_salary")
+    @JsonProperty("total")
+    private long totalSalary;
+
+    @Column(name = "min_salary")
+    @JsonProperty("min")
+    private long minSalary;
+
+    @Column(name = "max_salary")
+    @JsonProperty("max")
+    private long maxSalary;
+
+    @Column(name = "updated_at")
+    @JsonIgnore
+    private long updatedAt;
+
+    public PayrollSummary(int periodKey) {
+        this.periodKey = periodKey;
+    }
+
+    public PayrollSummary(int periodKey, long headcount, long totalSalary, long minSalary, long maxSalary) {
+        this.periodKey = periodKey;
+        this.headcount = headcount;
+        this.totalSalary = totalSalary;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+    }
+
+    @JsonProperty("period")
+    public String getPeriod() {
+        return PayPeriod.format(periodKey);
+    }
+
+    @JsonProperty("updated")
+    public String getUpdated() {
+        return EventLog.formatDate(updatedAt);
+    }
+
+    public boolean hasSameTotals(PayrollSummary other) {
+        return headcount == other.headcount && totalSalary == other.totalSalary
+                && minSalary == other.minSalary && maxSalary == other.maxSalary;
+    }
+
+    public void copyTotals(PayrollSummary other) {
+        headcount = other.headcount;
+        totalSalary = other.totalSalary;
+        minSalary = other.minSalary;
+        maxSalary = other.maxSalary;
+    }
+}
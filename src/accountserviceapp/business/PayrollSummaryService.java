@@ -0,0 +1,157 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.EmployeePaymentRepository;
+import accountserviceapp.persistence.PayrollJdbcRepository;
+import accountserviceapp.persistence.PayrollSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Service
+public class PayrollSummaryService {
+    record SalaryChange(int periodKey, Long previousSalary, long salary) {}
+
+    private final PayrollSummaryRepository payrollSummaryRepository;
+    private final EmployeePaymentRepository employeePaymentRepository;
+    private final PayrollJdbcRepository payrollJdbcRepository;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PayrollSummaryService(PayrollSummaryRepository payrollSummaryRepository,
+                                 EmployeePaymentRepository employeePaymentRepository,
+                                 PayrollJdbcRepository payrollJdbcRepository,
+                                 MeterRegistry meterRegistry) {
+        this.payrollSummaryRepository = payrollSummaryRepository;
+        this.employeePaymentRepository = employeePaymentRepository;
+        this.payrollJdbcRepository = payrollJdbcRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public List<PayrollSummary> getSummaries(int fromKey, int toKey) {
+        return payrollSummaryRepository.findAllByPeriodKeyBetweenOrderByPeriodKeyAsc(fromKey, toKey);
+    }
+
+    @Transactional
+    public void lockPeriods(Collection<Integer> periodKeys) {
+        for (Integer periodKey : new TreeSet<>(periodKeys)) {
+            if (!payrollJdbcRepository.insertSummaryIfAbsent(periodKey)) {
+                payrollSummaryRepository.findByPeriodKey(periodKey);
+            }
+        }
+    }
+
+    @Transactional
+    public void applyChanges(List<SalaryChange> changes) {
+        Map<Integer, List<SalaryChange>> changesByPeriod = new TreeMap<>();
+        for (SalaryChange change : changes) {
+            changesByPeriod.computeIfAbsent(change.periodKey(), periodKey -> new ArrayList<>()).add(change);
+        }
+
+        Map<Integer, PayrollSummary> summaries = new HashMap<>();
+        for (PayrollSummary summary : payrollSummaryRepository.findAllByPeriodKeyInOrderByPeriodKeyAsc(changesByPeriod.keySet())) {
+            summaries.put(summary.getPeriodKey(), summary);
+        }
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Integer, List<SalaryChange>> entry : changesByPeriod.entrySet()) {
+            PayrollSummary summary = summaries.get(entry.getKey());
+            if (summary == null) {
+                summary = new PayrollSummary(entry.getKey());
+                entityManager.persist(summary);
+            }
+
+            boolean exact = true;
+            for (SalaryChange change : entry.getValue()) {
+                exact &= applyChange(summary, change);
+            }
+
+            if (!exact) {
+                summary.copyTotals(employeePaymentRepository.aggregatePeriod(entry.getKey()));
+                meterRegistry.counter("payroll.summary.recompute").increment();
+            }
+
+            summary.setUpdatedAt(now);
+        }
+
+        payrollSummaryRepository.flush();
+    }
+
+    private boolean applyChange(PayrollSummary summary, SalaryChange change) {
+        long salary = change.salary();
+
+        if (change.previousSalary() == null) {
+            if (summary.getHeadcount() == 0) {
+                summary.setMinSalary(salary);
+                summary.setMaxSalary(salary);
+            } else {
+                summary.setMinSalary(Math.min(summary.getMinSalary(), salary));
+                summary.setMaxSalary(Math.max(summary.getMaxSalary(), salary));
+            }
+            summary.setHeadcount(summary.getHeadcount() + 1);
+            summary.setTotalSalary(summary.getTotalSalary() + salary);
+            return true;
+        }
+
+        long previousSalary = change.previousSalary();
+        summary.setTotalSalary(summary.getTotalSalary() + salary - previousSalary);
+        boolean exact = true;
+
+        if (salary <= summary.getMinSalary()) {
+            summary.setMinSalary(salary);
+        } else if (previousSalary == summary.getMinSalary()) {
+            exact = false;
+        }
+
+        if (salary >= summary.getMaxSalary()) {
+            summary.setMaxSalary(salary);
+        } else if (previousSalary == summary.getMaxSalary()) {
+            exact = false;
+        }
+
+        return exact;
+    }
+
+    @Transactional
+    public Map<String, Object> rebuild() {
+        Map<Integer, PayrollSummary> current = new LinkedHashMap<>();
+        for (PayrollSummary summary : payrollSummaryRepository.lockAll()) {
+            current.put(summary.getPeriodKey(), summary);
+        }
+
+        List<String> mismatchedPeriods = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        List<PayrollSummary> rebuilt = employeePaymentRepository.aggregateByPeriod();
+
+        for (PayrollSummary fresh : rebuilt) {
+            PayrollSummary summary = current.remove(fresh.getPeriodKey());
+            if (summary == null) {
+                mismatchedPeriods.add(fresh.getPeriod());
+                summary = fresh;
+                entityManager.persist(summary);
+            } else if (!summary.hasSameTotals(fresh)) {
+                mismatchedPeriods.add(fresh.getPeriod());
+                summary.copyTotals(fresh);
+            }
+            summary.setUpdatedAt(now);
+        }
+
+        for (PayrollSummary stale : current.values()) {
+            mismatchedPeriods.add(stale.getPeriod());
+            entityManager.remove(stale);
+        }
+
+        meterRegistry.counter("payroll.summary.mismatch").increment(mismatchedPeriods.size());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", "Payroll summary rebuilt!");
+        result.put("periods", rebuilt.size());
+        result.put("mismatchedPeriods", mismatchedPeriods);
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package accountserviceapp.business;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum Role {
+    ACCOUNTANT(false),
+    ADMINISTRATOR(true),
+    AUDITOR(false),
+    USER(false);
+
+    private static final Map<String, Role> BY_NAME = new HashMap<>();
+    private static final Map<String, Role> BY_AUTHORITY = new HashMap<>();
+
+    static {
+        for (Role role : values()) {
+            BY_NAME.put(role.name(), role);
+            BY_AUTHORITY.put(role.authority, role);
+        }
+    }
+
+    private final String authority;
+    private final boolean administrative;
+
+    Role(boolean administrative) {
+        this.authority = "ROLE_" + name();
+        this.administrative = administrative;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    public boolean isAdministrative() {
+        return administrative;
+    }
+
+    public String getType() {
+        return administrative ? "administrative" : "business";
+    }
+
+    public static Role fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    public static Role fromAuthority(String authority) {
+        return authority == null ? null : BY_AUTHORITY.get(authority);
+    }
+}
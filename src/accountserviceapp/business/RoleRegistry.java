@@ -0,0 +1,38 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.GroupRepository;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@DependsOn("dataLoader")
+public class RoleRegistry {
+    private final Map<Role, Group> groups;
+
+    public RoleRegistry(GroupRepository groupRepository) {
+        Map<Role, Group> loadedGroups = new EnumMap<>(Role.class);
+
+        for (Group group : groupRepository.findAll()) {
+            Role role = Role.fromAuthority(group.getRole());
+            if (role != null) {
+                loadedGroups.put(role, group);
+            }
+        }
+
+        for (Role role : Role.values()) {
+            if (!loadedGroups.containsKey(role)) {
+                throw new IllegalStateException("Missing group for " + role.getAuthority());
+            }
+        }
+
+        this.groups = Collections.unmodifiableMap(loadedGroups);
+    }
+
+    public Group getGroup(Role role) {
+        return groups.get(role);
+    }
+}
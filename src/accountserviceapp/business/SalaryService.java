@@ -2,129 +2,292 @@ package accountserviceapp.business;
 
 import accountserviceapp.exceptions.CustomExceptions;
 import accountserviceapp.persistence.EmployeePaymentRepository;
+import accountserviceapp.persistence.PayrollJdbcRepository;
 import accountserviceapp.presentation.EmployeeSalaryDTO;
 import accountserviceapp.presentation.PaymentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 @Service
 public class SalaryService {
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final EmployeePaymentRepository employeePaymentRepository;
+    private final PayrollJdbcRepository payrollJdbcRepository;
+    private final PayrollSummaryService payrollSummaryService;
     private final UserService userService;
+    private final ObjectWriter ndjsonWriter;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public SalaryService(EmployeePaymentRepository employeePaymentRepository,
-                         UserService userService) {
+                         PayrollJdbcRepository payrollJdbcRepository,
+                         PayrollSummaryService payrollSummaryService,
+                         UserService userService,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
         this.employeePaymentRepository = employeePaymentRepository;
+        this.payrollJdbcRepository = payrollJdbcRepository;
+        this.payrollSummaryService = payrollSummaryService;
         this.userService = userService;
+        this.ndjsonWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.meterRegistry = meterRegistry;
     }
 
     public boolean isValidPaymentDTO(PaymentDTO paymentDTO) {
-        return isNonNegativeSalary(paymentDTO.getSalary()) && isValidPeriod(paymentDTO.getPeriod());
+        return isNonNegativeSalary(paymentDTO.getSalary()) && PayPeriod.isValid(paymentDTO.getPeriodKey());
     }
 
-    public boolean hasNoDuplicateAllocationsInList(ArrayList<PaymentDTO> paymentDTOList) {
-        Set<String> processedKeys = new HashSet<>();
+    public boolean hasNoDuplicateAllocationsInList(List<PaymentDTO> paymentDTOList, Map<String, Integer> employeeIds) {
+        LongKeySet processedKeys = new LongKeySet(paymentDTOList.size());
 
         for (PaymentDTO paymentDTO : paymentDTOList) {
-            String key = paymentDTO.getEmployeeEmail() + "-" + paymentDTO.getPeriod();
-
-            if (processedKeys.contains(key)) {
+            if (!registerAllocation(processedKeys, paymentDTO, employeeIds)) {
                 return false;
-            } else {
-                processedKeys.add(key);
             }
         }
 
         return true;
     }
 
+    private boolean registerAllocation(LongKeySet processedKeys, PaymentDTO paymentDTO, Map<String, Integer> employeeIds) {
+        long employeeId = employeeIds.get(paymentDTO.getEmployeeEmail().toLowerCase());
+        return processedKeys.add(employeeId << 32 | paymentDTO.getPeriodKey());
+    }
+
 
     private boolean isNonNegativeSalary(long salary) {
         return salary >= 0;
     }
 
-    private boolean isValidPeriod(String period) {
-        String regex = "^(0[1-9]|1[0-2])-\\d{4}$";
-        return period.matches(regex);
-    }
-
     @Transactional
     public void upsertEmployeeSalaryTableByList(List<PaymentDTO> paymentDTOList) {
-        for (PaymentDTO paymentDTO : paymentDTOList) {
-            upsertEmployeeSalaryTable(paymentDTO);
+        for (int from = 0; from < paymentDTOList.size(); from += UPSERT_CHUNK_SIZE) {
+            upsertChunk(paymentDTOList.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, paymentDTOList.size())));
+        }
+    }
+
+    private void upsertChunk(List<PaymentDTO> paymentDTOChunk) {
+        Set<String> emails = new HashSet<>();
+        Set<Integer> periodKeys = new HashSet<>();
+        for (PaymentDTO paymentDTO : paymentDTOChunk) {
+            paymentDTO.setEmployeeEmail(paymentDTO.getEmployeeEmail().toLowerCase());
+            emails.add(paymentDTO.getEmployeeEmail());
+            periodKeys.add(paymentDTO.getPeriodKey());
+        }
+
+        payrollSummaryService.lockPeriods(periodKeys);
+
+        Map<String, Map<Integer, PaymentDTO>> existingPayments = new HashMap<>();
+        for (PaymentDTO existingPayment : employeePaymentRepository.findAllByEmployeeEmailInAndPeriodKeyIn(emails, periodKeys)) {
+            existingPayments.computeIfAbsent(existingPayment.getEmployeeEmail(), email -> new HashMap<>())
+                    .put(existingPayment.getPeriodKey(), existingPayment);
         }
+
+        List<PaymentDTO> newPayments = new ArrayList<>();
+        List<PayrollSummaryService.SalaryChange> salaryChanges = new ArrayList<>(paymentDTOChunk.size());
+        for (PaymentDTO paymentDTO : paymentDTOChunk) {
+            PaymentDTO existingPayment = existingPayments
+                    .getOrDefault(paymentDTO.getEmployeeEmail(), Map.of())
+                    .get(paymentDTO.getPeriodKey());
+
+            if (existingPayment != null) {
+                salaryChanges.add(new PayrollSummaryService.SalaryChange(
+                        paymentDTO.getPeriodKey(), existingPayment.getSalary(), paymentDTO.getSalary()));
+                existingPayment.setSalary(paymentDTO.getSalary());
+            } else {
+                salaryChanges.add(new PayrollSummaryService.SalaryChange(
+                        paymentDTO.getPeriodKey(), null, paymentDTO.getSalary()));
+                newPayments.add(copyOf(paymentDTO));
+            }
+        }
+
+        employeePaymentRepository.saveAll(newPayments);
+        employeePaymentRepository.flush();
+        payrollSummaryService.applyChanges(salaryChanges);
+        entityManager.clear();
     }
 
     @Transactional
     public void upsertEmployeeSalaryTable(PaymentDTO paymentDTO) {
+        paymentDTO.setEmployeeEmail(paymentDTO.getEmployeeEmail().toLowerCase());
         String email = paymentDTO.getEmployeeEmail();
-        String period = paymentDTO.getPeriod();
+        int periodKey = paymentDTO.getPeriodKey();
 
-        PaymentDTO existingPayment = employeePaymentRepository.findByEmployeeEmailAndPeriod(email, period);
+        payrollSummaryService.lockPeriods(List.of(periodKey));
+        PaymentDTO existingPayment = employeePaymentRepository.findByEmployeeEmailAndPeriodKey(email, periodKey);
 
         if (existingPayment != null) {
+            long previousSalary = existingPayment.getSalary();
             existingPayment.setSalary(paymentDTO.getSalary());
             employeePaymentRepository.save(existingPayment);
+            payrollSummaryService.applyChanges(List.of(
+                    new PayrollSummaryService.SalaryChange(periodKey, previousSalary, paymentDTO.getSalary())));
         } else {
-            employeePaymentRepository.save(paymentDTO);
+            employeePaymentRepository.save(copyOf(paymentDTO));
+            payrollSummaryService.applyChanges(List.of(
+                    new PayrollSummaryService.SalaryChange(periodKey, null, paymentDTO.getSalary())));
         }
     }
 
-    private Long findSalaryByEmailAndPeriod(String email, String period) {
-        return employeePaymentRepository.findSalaryByEmployeeEmailAndPeriod(email, period);
+    private PaymentDTO copyOf(PaymentDTO paymentDTO) {
+        PaymentDTO copy = new PaymentDTO();
+        copy.setEmployeeEmail(paymentDTO.getEmployeeEmail());
+        copy.setPeriodKey(paymentDTO.getPeriodKey());
+        copy.setSalary(paymentDTO.getSalary());
+        return copy;
+    }
+
+    private Long findSalaryByEmailAndPeriod(String email, int periodKey) {
+        return employeePaymentRepository.findSalaryByEmployeeEmailAndPeriodKey(email, periodKey);
     }
 
-    private List<PaymentDTO> findPaymentsByEmail(String email) {
-        return employeePaymentRepository.findAllByEmployeeEmail(email);
+    private List<PaymentDTO> findPaymentsByEmail(String email, int fromKey, int toKey, Pageable pageable) {
+        return employeePaymentRepository.findByEmployeeEmailAndPeriodKeyBetweenOrderByPeriodKeyDesc(email, fromKey, toKey, pageable);
     }
 
-    public ResponseEntity<?> getEmplPayment(String period, UserDetails userDetails) {
+    public ResponseEntity<?> getEmplPayment(String period, String from, String to, Integer limit, String before,
+                                            UserDetails userDetails) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return findEmplPayment(period, from, to, limit, before, userDetails);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("payroll.payslip.read",
+                    "mode", period != null ? "single" : "list", "outcome", outcome));
+        }
+    }
+
+    private ResponseEntity<?> findEmplPayment(String period, String from, String to, Integer limit, String before,
+                                              UserDetails userDetails) {
         User currUser = userService.getUserByEmail(userDetails.getUsername());
 
         if (period != null) {
-            validatePeriod(period);
+            int periodKey = PayPeriod.parse(period);
+            validatePeriod(periodKey);
 
-            Long salary = this.findSalaryByEmailAndPeriod(currUser.getEmail().toLowerCase(), period);
+            Long salary = this.findSalaryByEmailAndPeriod(currUser.getEmail().toLowerCase(), periodKey);
             return ResponseEntity.status(HttpStatus.OK)
-                    .body(createEmployeeSalaryResponse(currUser, period, salary));
-        } else {
-            List<PaymentDTO> userPayments = this.findPaymentsByEmail(currUser.getEmail().toLowerCase());
-            List<EmployeeSalaryDTO> salaryList = createEmployeeSalaryList(currUser, userPayments);
+                    .body(createEmployeeSalaryResponse(currUser, periodKey, salary));
+        }
 
-            Collections.reverse(salaryList);
+        int fromKey = parseOptionalPeriod(from, 0);
+        int toKey = parseOptionalPeriod(to, Integer.MAX_VALUE);
+        if (before != null) {
+            toKey = Math.min(toKey, parseOptionalPeriod(before, Integer.MAX_VALUE) - 1);
+        }
 
+        Pageable pageable = limit == null
+                ? Pageable.unpaged()
+                : PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<PaymentDTO> userPayments = this.findPaymentsByEmail(currUser.getEmail().toLowerCase(), fromKey, toKey, pageable);
+        List<EmployeeSalaryDTO> salaryList = createEmployeeSalaryList(currUser, userPayments);
+
+        if (pageable.isPaged() && userPayments.size() == pageable.getPageSize()) {
             return ResponseEntity.status(HttpStatus.OK)
+                    .header("X-Next-Before", userPayments.get(userPayments.size() - 1).getPeriod())
                     .body(salaryList);
         }
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(salaryList);
+    }
+
+    public void streamEmplPayment(String period, String from, String to, Integer limit, String before,
+                                  UserDetails userDetails, OutputStream outputStream) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            writeEmplPayment(period, from, to, limit, before, userDetails, outputStream);
+        } catch (IOException | RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("payroll.payslip.read", "mode", "stream", "outcome", outcome));
+        }
+    }
+
+    private void writeEmplPayment(String period, String from, String to, Integer limit, String before,
+                                  UserDetails userDetails, OutputStream outputStream) throws IOException {
+        User currUser = userService.getUserByEmail(userDetails.getUsername());
+
+        int fromKey = period != null ? parseOptionalPeriod(period, 0) : parseOptionalPeriod(from, 0);
+        int toKey = period != null ? fromKey : parseOptionalPeriod(to, Integer.MAX_VALUE);
+        if (before != null) {
+            toKey = Math.min(toKey, parseOptionalPeriod(before, Integer.MAX_VALUE) - 1);
+        }
+
+        int rowLimit = limit == null ? Integer.MAX_VALUE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        try (OutputStream ndjsonStream = new BufferedOutputStream(outputStream)) {
+            payrollJdbcRepository.forEachEmployeePayment(currUser.getEmail().toLowerCase(), fromKey, toKey, rowLimit,
+                    payment -> {
+                        try {
+                            ndjsonStream.write(ndjsonWriter.writeValueAsBytes(new EmployeeSalaryDTO(
+                                    currUser.getFirstName(), currUser.getLastName(),
+                                    PayPeriod.formatLong(payment.getPeriodKey()), formatSalary(payment.getSalary()))));
+                            ndjsonStream.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int parseOptionalPeriod(String period, int defaultKey) {
+        if (period == null) {
+            return defaultKey;
+        }
+
+        int periodKey = PayPeriod.parse(period);
+        validatePeriod(periodKey);
+        return periodKey;
     }
 
-    private void validatePeriod(String period) {
-        if (Integer.valueOf(period.substring(0, 2)) > 12 || Integer.valueOf(period.substring(0, 2)) < 1) {
+    private void validatePeriod(int periodKey) {
+        if (!PayPeriod.isValid(periodKey)) {
             throw new CustomExceptions.InvalidPeriodException();
         }
     }
 
-    private EmployeeSalaryDTO createEmployeeSalaryResponse(User user, String period, Long salary) {
-        YearMonth yearMonth = YearMonth.parse(period, DateTimeFormatter.ofPattern("MM-yyyy"));
-        String formattedPeriod = yearMonth.format(DateTimeFormatter.ofPattern("MMMM-yyyy").localizedBy(Locale.ENGLISH));
+    private EmployeeSalaryDTO createEmployeeSalaryResponse(User user, int periodKey, Long salary) {
+        String formattedPeriod = PayPeriod.formatLong(periodKey);
         String formattedSalary = formatSalary(salary);
 
         return new EmployeeSalaryDTO(user.getFirstName(), user.getLastName(), formattedPeriod, formattedSalary);
     }
 
-    private List<EmployeeSalaryDTO> createEmployeeSalaryList(User user, List<PaymentDTO> payments) {
+    List<EmployeeSalaryDTO> createEmployeeSalaryList(User user, List<PaymentDTO> payments) {
         List<EmployeeSalaryDTO> salaryList = new ArrayList<>();
 
         for (PaymentDTO payment : payments) {
-            YearMonth yearMonth = YearMonth.parse(payment.getPeriod(), DateTimeFormatter.ofPattern("MM-yyyy"));
-            String formattedPeriod = yearMonth.format(DateTimeFormatter.ofPattern("MMMM-yyyy").localizedBy(Locale.ENGLISH));
+            String formattedPeriod = PayPeriod.formatLong(payment.getPeriodKey());
             String formattedSalary = formatSalary(Long.valueOf(payment.getSalary()));
 
             EmployeeSalaryDTO salaryDTO = new EmployeeSalaryDTO(user.getFirstName(), user.getLastName(),
@@ -136,7 +299,7 @@ public class SalaryService {
         return salaryList;
     }
 
-    private String formatSalary(Long salary) {
+    String formatSalary(Long salary) {
         return String.format("%d dollar(s) %02d cent(s)", salary / 100, salary % 100);
     }
 }
@@ -0,0 +1,119 @@
+package accountserviceapp.business;
+
+import accountserviceapp.exceptions.CustomExceptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class TokenService {
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final long ttlSeconds;
+    private final ThreadLocal<Mac> mac;
+    private final Map<String, Integer> tokenGenerations = new ConcurrentHashMap<>();
+
+    public TokenService(@Value("${auth.token.enabled:false}") boolean enabled,
+                        @Value("${auth.token.ttl-seconds:900}") long ttlSeconds) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec keySpec = new SecretKeySpec(secret, MAC_ALGORITHM);
+
+        this.enabled = enabled;
+        this.ttlSeconds = ttlSeconds;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ResponseEntity<?> issueToken(UserDetails userDetails) {
+        if (!enabled) {
+            throw new CustomExceptions.TokenAuthenticationDisabledException();
+        }
+
+        String email = userDetails.getUsername().toLowerCase();
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String roles = String.join(",", AuthorityUtils.authorityListToSet(userDetails.getAuthorities()));
+
+        String payload = email + "|" + currentGeneration(email) + "|" + expiresAt + "|" + roles;
+        String encodedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        String token = encodedPayload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(encodedPayload));
+
+        return ResponseEntity.ok(Map.of("token", token, "token_type", "Bearer", "expires_in", ttlSeconds));
+    }
+
+    public Authentication authenticate(String token) {
+        int separator = token.indexOf('.');
+        if (!enabled || separator <= 0) {
+            return null;
+        }
+
+        String encodedPayload = token.substring(0, separator);
+        byte[] signature;
+        String[] claims;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+            claims = new String(Base64.getUrlDecoder().decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(sign(encodedPayload), signature) || claims.length != 4) {
+            return null;
+        }
+
+        String email = claims[0];
+        if (Integer.parseInt(claims[1]) != currentGeneration(email)
+                || Long.parseLong(claims[2]) < System.currentTimeMillis() / 1000) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = claims[3].isEmpty()
+                ? List.of()
+                : AuthorityUtils.commaSeparatedStringToAuthorityList(claims[3]);
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername(email)
+                .password("")
+                .authorities(authorities)
+                .build();
+
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+    }
+
+    public void revokeTokens(String email) {
+        tokenGenerations.merge(email.toLowerCase(), 1, Integer::sum);
+    }
+
+    private int currentGeneration(String email) {
+        return tokenGenerations.getOrDefault(email, 0);
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -17,7 +17,8 @@ import java.util.stream.Collectors;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "users_db")
+@Table(name = "users_db",
+        uniqueConstraints = @UniqueConstraint(name = "uk_users_email_canonical", columnNames = "email_canonical"))
 public class User {
     @Id
     @GeneratedValue
@@ -36,6 +37,10 @@ public class User {
     @NotBlank
     private String email;
 
+    @Column(name = "email_canonical")
+    @JsonIgnore
+    private String emailCanonical;
+
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @NotBlank
     private String password;
@@ -48,10 +53,7 @@ public class User {
     @JsonIgnore
     private int failedAttempt;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {
-            CascadeType.PERSIST,
-            CascadeType.MERGE
-    })
+    @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_groups",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "group_id"))
@@ -60,6 +62,16 @@ public class User {
     @SortNatural
     private Set<Group> userGroups = new TreeSet<>();
 
+    @PrePersist
+    @PreUpdate
+    private void canonicalizeEmail() {
+        emailCanonical = canonicalize(email);
+    }
+
+    public static String canonicalize(String email) {
+        return email == null ? null : email.toLowerCase();
+    }
+
     public void addUserGroup(Group group) {
         userGroups.add(group);
     }
@@ -75,8 +87,16 @@ public class User {
     }
 
     public boolean isAdministrator() {
-        Set<String> roles = getRoleStrings();
-        return roles.contains("ROLE_ADMINISTRATOR");
+        return hasRole(Role.ADMINISTRATOR);
+    }
+
+    public boolean hasRole(Role role) {
+        for (Group group : userGroups) {
+            if (group.getRole().equals(role.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean hasGroupOfType(String type) {
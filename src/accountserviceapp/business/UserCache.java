@@ -0,0 +1,164 @@
+package accountserviceapp.business;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class UserCache {
+    private static final String REQUEST_ATTRIBUTE = UserCache.class.getName() + ".users";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserCache(@Value("${user-cache.ttl-seconds:60}") long ttlSeconds,
+                     @Value("${user-cache.max-size:10000}") int maxSize,
+                     MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("user.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.cache").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gaugeMapSize("user.cache.size", Tags.empty(), entries);
+    }
+
+    public User get(String canonicalEmail, Function<String, User> loader) {
+        Map<String, CachedUser> requestUsers = requestUsers();
+        if (requestUsers != null && requestUsers.containsKey(canonicalEmail)) {
+            CachedUser cachedUser = requestUsers.get(canonicalEmail);
+            return cachedUser == null ? null : cachedUser.toUser();
+        }
+
+        CachedUser cachedUser = getShared(canonicalEmail, loader);
+
+        if (requestUsers != null) {
+            requestUsers.put(canonicalEmail, cachedUser);
+        }
+
+        return cachedUser == null ? null : cachedUser.toUser();
+    }
+
+    private CachedUser getShared(String canonicalEmail, Function<String, User> loader) {
+        if (ttlMillis <= 0) {
+            return CachedUser.of(loader.apply(canonicalEmail));
+        }
+
+        Entry entry = entries.get(canonicalEmail);
+        if (entry != null && entry.expiresAt() >= System.currentTimeMillis()) {
+            hits.increment();
+            return entry.user();
+        }
+
+        misses.increment();
+        long invalidationStamp = invalidations.get();
+        CachedUser cachedUser = CachedUser.of(loader.apply(canonicalEmail));
+
+        if (cachedUser != null && invalidations.get() == invalidationStamp) {
+            put(canonicalEmail, cachedUser);
+        }
+
+        return cachedUser;
+    }
+
+    private void put(String canonicalEmail, CachedUser user) {
+        if (entries.size() >= maxSize) {
+            purgeExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+
+        entries.put(canonicalEmail, new Entry(user, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void evict(String canonicalEmail) {
+        evictNow(canonicalEmail);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(canonicalEmail);
+                }
+            });
+        }
+    }
+
+    private void evictNow(String canonicalEmail) {
+        invalidations.incrementAndGet();
+        entries.remove(canonicalEmail);
+
+        Map<String, CachedUser> requestUsers = requestUsers();
+        if (requestUsers != null) {
+            requestUsers.remove(canonicalEmail);
+        }
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() < now);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, CachedUser> requestUsers() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+
+        Map<String, CachedUser> requestUsers = (Map<String, CachedUser>) requestAttributes.getAttribute(REQUEST_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (requestUsers == null) {
+            requestUsers = new HashMap<>();
+            requestAttributes.setAttribute(REQUEST_ATTRIBUTE, requestUsers, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return requestUsers;
+    }
+
+    private record Entry(CachedUser user, long expiresAt) {}
+
+    private record CachedUser(int id, String firstName, String lastName, String email, String password,
+                              boolean accountNonLocked, int failedAttempt, List<Group> userGroups) {
+        private static CachedUser of(User user) {
+            if (user == null) {
+                return null;
+            }
+
+            return new CachedUser(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                    user.getPassword(), user.isAccountNonLocked(), user.getFailedAttempt(),
+                    List.copyOf(user.getUserGroups()));
+        }
+
+        private User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setEmail(email);
+            user.setEmailCanonical(User.canonicalize(email));
+            user.setPassword(password);
+            user.setAccountNonLocked(accountNonLocked);
+            user.setFailedAttempt(failedAttempt);
+            user.setUserGroups(new TreeSet<>(userGroups));
+            return user;
+        }
+    }
+}
@@ -1,29 +1,43 @@
 package accountserviceapp.business;
 
 import accountserviceapp.exceptions.CustomExceptions;
-import accountserviceapp.persistence.GroupRepository;
 import accountserviceapp.persistence.UserRepository;
 import accountserviceapp.presentation.PasswordChangeRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
 
 import java.util.*;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
-    private final GroupRepository groupRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final CredentialCache credentialCache;
+    private final UserCache userCache;
+    private final FailedLoginTracker failedLoginTracker;
+    private final TokenService tokenService;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
 
     private final Set<String> breachedPasswords = new HashSet<>(Arrays.asList(
             "PasswordForJanuary", "PasswordForFebruary", "PasswordForMarch", "PasswordForApril",
@@ -32,33 +46,106 @@ public class UserService implements UserDetailsService {
     ));
 
     public UserService(UserRepository userRepository,
-                       BCryptPasswordEncoder passwordEncoder,
-                       GroupRepository groupRepository) {
+                       PasswordEncoder passwordEncoder,
+                       RoleRegistry roleRegistry,
+                       CredentialCache credentialCache,
+                       UserCache userCache,
+                       FailedLoginTracker failedLoginTracker,
+                       TokenService tokenService,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.groupRepository = groupRepository;
+        this.roleRegistry = roleRegistry;
+        this.credentialCache = credentialCache;
+        this.userCache = userCache;
+        this.failedLoginTracker = failedLoginTracker;
+        this.tokenService = tokenService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findUserByEmailIgnoreCase(username);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        User user = getUserByEmail(username);
         if (user == null) {
+            sample.stop(meterRegistry.timer("auth.user.load", "outcome", "not_found"));
             throw new UsernameNotFoundException("Not found");
         }
 
+        sample.stop(meterRegistry.timer("auth.user.load", "outcome", "found"));
+        return new AccountAdapter(user);
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmailCanonical(User.canonicalize(userDetails.getUsername()));
+        if (user == null) {
+            return userDetails;
+        }
+
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userCache.evict(User.canonicalize(user.getEmail()));
+        credentialCache.evict(user.getEmail());
+        meterRegistry.counter("auth.password.rehash").increment();
+
         return new AccountAdapter(user);
     }
 
     public User getUserByEmail(String email) {
-        return userRepository.findUserByEmailIgnoreCase(email);
+        String canonicalEmail = User.canonicalize(email);
+        if (canonicalEmail == null) {
+            return null;
+        }
+
+        return userCache.get(canonicalEmail, this::loadDetachedUser);
+    }
+
+    private User loadDetachedUser(String canonicalEmail) {
+        User user = userRepository.findByEmailCanonical(canonicalEmail);
+        if (user != null && entityManager.contains(user)) {
+            entityManager.detach(user);
+        }
+        return user;
+    }
+
+    private User loadUserForUpdate(User user) {
+        String canonicalEmail = User.canonicalize(user.getEmail());
+        userCache.evict(canonicalEmail);
+
+        User managedUser = userRepository.findByEmailCanonical(canonicalEmail);
+        if (managedUser == null) {
+            throw new CustomExceptions.UserNotFoundException();
+        }
+        return managedUser;
     }
 
     private void saveUserToDB(User userToSave) {
         userRepository.save(userToSave);
+        userCache.evict(User.canonicalize(userToSave.getEmail()));
     }
 
     public boolean emailExists(String email) {
-        return userRepository.existsByEmailIgnoreCase(email);
+        return userRepository.existsByEmailCanonical(User.canonicalize(email));
+    }
+
+    public Map<String, Integer> findEmployeeIds(Collection<String> emails) {
+        List<String> lowerCaseEmails = emails.stream()
+                .filter(Objects::nonNull)
+                .map(User::canonicalize)
+                .distinct()
+                .toList();
+        Map<String, Integer> employeeIds = new HashMap<>();
+
+        for (int from = 0; from < lowerCaseEmails.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = lowerCaseEmails.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, lowerCaseEmails.size()));
+            for (Object[] emailAndId : userRepository.findIdsByEmails(chunk)) {
+                employeeIds.put((String) emailAndId[0], (Integer) emailAndId[1]);
+            }
+        }
+
+        return employeeIds;
     }
 
     private String encodePassword(String password) {
@@ -69,10 +156,11 @@ public class UserService implements UserDetailsService {
         return breachedPasswords.contains(password);
     }
 
-    @Transactional
     private void changeUserPassword(User user, String newPassword) {
-        user.setPassword(newPassword);
-        userRepository.save(user);
+        User managedUser = loadUserForUpdate(user);
+        managedUser.setPassword(newPassword);
+        userRepository.save(managedUser);
+        invalidateCredentials(managedUser.getEmail());
     }
 
     private boolean arePasswordsEqual(String oldPassword, String newPassword) {
@@ -83,60 +171,103 @@ public class UserService implements UserDetailsService {
         return userRepository.isUserTableEmpty();
     }
 
-    public void setUserGroup(User user, String role) {
-        Group groupToAdd = groupRepository.findByRole(role);
+    @Transactional
+    public void setUserGroup(User user, Role role) {
+        User managedUser = loadUserForUpdate(user);
+        addUserGroup(managedUser, role);
+        userRepository.save(managedUser);
+        invalidateCredentials(managedUser.getEmail());
+    }
 
+    private void addUserGroup(User user, Role role) {
         boolean hasAdministrativeGroup = user.hasGroupOfType("administrative");
         boolean hasBusinessGroup = user.hasGroupOfType("business");
 
-        if ((groupToAdd.getType().equals("administrative") && hasBusinessGroup)
-                || (groupToAdd.getType().equals("business") && hasAdministrativeGroup)) {
+        if ((role.isAdministrative() && hasBusinessGroup)
+                || (!role.isAdministrative() && hasAdministrativeGroup)) {
             throw new CustomExceptions.InvalidRoleCombinationException();
         }
 
-        user.addUserGroup(groupToAdd);
-        userRepository.save(user);
+        user.addUserGroup(roleRegistry.getGroup(role));
     }
 
-    public void removeUserGroup(User user, String role) {
-        Group group = groupRepository.findByRole(role);
-        user.removeUserGroup(group);
-        userRepository.save(user);
+    @Transactional
+    public void removeUserGroup(User user, Role role) {
+        User managedUser = loadUserForUpdate(user);
+        managedUser.removeUserGroup(roleRegistry.getGroup(role));
+        userRepository.save(managedUser);
+        invalidateCredentials(managedUser.getEmail());
     }
 
     public List<User> getAllUsersInDB() {
         return userRepository.findAll();
     }
 
+    @Transactional
     public void deleteUserByEmail(String email) {
-        User userToDelete = userRepository.findUserByEmailIgnoreCase(email);
+        User userToDelete = loadUserForUpdate(getUserByEmail(email));
         userRepository.delete(userToDelete);
+        invalidateCredentials(email);
+    }
+
+    public FailedLoginTracker.Outcome increaseFailedAttempts(User user) {
+        return failedLoginTracker.recordFailure(User.canonicalize(user.getEmail()), user.getFailedAttempt());
+    }
+
+    public boolean hasFailedAttempts(User user) {
+        return failedLoginTracker.getFailedAttempts(User.canonicalize(user.getEmail()), user.getFailedAttempt()) > 0;
     }
 
     @Transactional
-    public void increaseFailedAttempts(User user) {
-        int newFailAttempts = user.getFailedAttempt() + 1;
-        userRepository.updateFailedAttempts(newFailAttempts, user.getEmail());
+    public void resetFailedAttempts(User user) {
+        String canonicalEmail = User.canonicalize(user.getEmail());
+        failedLoginTracker.reset(canonicalEmail);
+
+        if (user.getFailedAttempt() > 0) {
+            userRepository.updateFailedAttempts(0, canonicalEmail);
+            userCache.evict(canonicalEmail);
+        }
     }
 
+    @Scheduled(fixedDelayString = "${auth.failed-login.flush-interval-ms:30000}")
     @Transactional
-    public void resetFailedAttempts(String email) {
-        userRepository.updateFailedAttempts(0, email);
+    public void flushFailedAttempts() {
+        failedLoginTracker.drainDirty().forEach((canonicalEmail, failedAttempts) -> {
+            userRepository.lockByEmailCanonical(canonicalEmail);
+            if (!failedLoginTracker.wasResetSinceDrain(canonicalEmail)) {
+                userRepository.updateFailedAttempts(failedAttempts, canonicalEmail);
+                userCache.evict(canonicalEmail);
+            }
+        });
     }
 
     @Transactional
     public void lock(User user) {
         if (!user.isAdministrator()) {
-            user.setAccountNonLocked(false);
-            userRepository.save(user);
+            String canonicalEmail = User.canonicalize(user.getEmail());
+            User managedUser = loadUserForUpdate(user);
+            managedUser.setFailedAttempt(failedLoginTracker.getFailedAttempts(canonicalEmail, managedUser.getFailedAttempt()));
+            managedUser.setAccountNonLocked(false);
+            userRepository.save(managedUser);
+            failedLoginTracker.markPersisted(canonicalEmail);
+            invalidateCredentials(managedUser.getEmail());
         }
     }
 
     @Transactional
     public void unlock(User user) {
-        user.setAccountNonLocked(true);
-        this.resetFailedAttempts(user.getEmail());
-        userRepository.save(user);
+        failedLoginTracker.reset(User.canonicalize(user.getEmail()));
+        User managedUser = loadUserForUpdate(user);
+        managedUser.setAccountNonLocked(true);
+        managedUser.setFailedAttempt(0);
+        userRepository.save(managedUser);
+        invalidateCredentials(managedUser.getEmail());
+    }
+
+    private void invalidateCredentials(String email) {
+        userCache.evict(User.canonicalize(email));
+        credentialCache.evict(email);
+        tokenService.revokeTokens(email);
     }
 
     public String getCurrAuthUser() {
@@ -169,9 +300,9 @@ public class UserService implements UserDetailsService {
         }
 
         if (isFirstUser()) {
-            setUserGroup(userToSignUp, "ROLE_ADMINISTRATOR");
+            addUserGroup(userToSignUp, Role.ADMINISTRATOR);
         } else {
-            setUserGroup(userToSignUp, "ROLE_USER");
+            addUserGroup(userToSignUp, Role.USER);
         }
 
         saveUserToDB(userToSignUp);
@@ -180,7 +311,9 @@ public class UserService implements UserDetailsService {
     @Transactional
     public ResponseEntity<?> changeUserPassword(UserDetails userDetails, PasswordChangeRequest passwordChangeRequest) {
         String newPassword = passwordChangeRequest.getNewPassword();
-        String currPasswordHash = userDetails.getPassword();
+        String currUserEmail = userDetails.getUsername().toLowerCase();
+        User user = getUserByEmail(currUserEmail);
+        String currPasswordHash = user.getPassword();
 
         if (newPassword.length() < 12) {
             throw new CustomExceptions.InvalidPasswordException();
@@ -194,10 +327,7 @@ public class UserService implements UserDetailsService {
             throw new CustomExceptions.EqualPasswordException();
         }
 
-        String currUserEmail = userDetails.getUsername().toLowerCase();
         String encodedNewPassword = encodePassword(newPassword);
-
-        User user = getUserByEmail(currUserEmail);
         changeUserPassword(user, encodedNewPassword);
 
         return ResponseEntity.ok(Map.of("status", "The password has been updated successfully", "email", currUserEmail.toLowerCase()));
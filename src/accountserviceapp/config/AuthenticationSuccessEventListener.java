@@ -1,5 +1,6 @@
 package accountserviceapp.config;
 
+import accountserviceapp.business.AccountAdapter;
 import accountserviceapp.business.User;
 import accountserviceapp.business.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +19,11 @@ public class AuthenticationSuccessEventListener implements ApplicationListener<A
     public void onApplicationEvent(AuthenticationSuccessEvent event) {
         Authentication authentication = event.getAuthentication();
         if (authentication != null) {
-            User currUser = userService.getUserByEmail(authentication.getName());
-            if (currUser.getFailedAttempt() > 0 && currUser.isAccountNonLocked()) {
-                userService.resetFailedAttempts(authentication.getName());
+            User currUser = authentication.getPrincipal() instanceof AccountAdapter accountAdapter
+                    ? accountAdapter.getUser()
+                    : userService.getUserByEmail(authentication.getName());
+            if (currUser != null && currUser.isAccountNonLocked() && userService.hasFailedAttempts(currUser)) {
+                userService.resetFailedAttempts(currUser);
             }
         }
     }
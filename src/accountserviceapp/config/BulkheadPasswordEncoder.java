@@ -0,0 +1,168 @@
+package accountserviceapp.config;
+
+import accountserviceapp.exceptions.CustomExceptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+public class BulkheadPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final long queueTimeoutNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits = new AtomicLong();
+
+    private final Timer queueTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+    private final Counter timedOutCounter;
+
+    public BulkheadPasswordEncoder(PasswordEncoder delegate,
+                                   int poolSize,
+                                   int maxLimit,
+                                   long queueTimeoutMillis,
+                                   MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.minLimit = poolSize;
+        this.maxLimit = Math.max(poolSize, maxLimit);
+        this.limitBits.set(Double.doubleToLongBits(Math.min(this.maxLimit, poolSize * 2)));
+
+        this.queueTimer = Timer.builder("auth.password.hash.queue").register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected").tag("reason", "limit").register(meterRegistry);
+        this.timedOutCounter = Counter.builder("auth.password.hash.rejected").tag("reason", "queue_timeout").register(meterRegistry);
+        meterRegistry.gauge("auth.password.hash.limit", this, BulkheadPasswordEncoder::getLimit);
+        meterRegistry.gauge("auth.password.hash.in_flight", inFlight);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> hash, Timer hashTimer) {
+        if (inFlight.incrementAndGet() > (int) getLimit()) {
+            inFlight.decrementAndGet();
+            rejectedCounter.increment();
+            throw new CustomExceptions.PasswordHashingUnavailableException();
+        }
+
+        long submittedAt = System.nanoTime();
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                started.set(true);
+                long queueWait = System.nanoTime() - submittedAt;
+                queueTimer.record(queueWait, TimeUnit.NANOSECONDS);
+
+                if (queueWait > queueTimeoutNanos) {
+                    decreaseLimit();
+                    timedOutCounter.increment();
+                    throw new CustomExceptions.PasswordHashingUnavailableException();
+                }
+
+                if (queueWait > queueTimeoutNanos / 2) {
+                    decreaseLimit();
+                } else {
+                    increaseLimit();
+                }
+                return hashTimer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw new CustomExceptions.PasswordHashingUnavailableException();
+        }
+
+        try {
+            try {
+                return future.get(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!started.get() && future.cancel(false)) {
+                    decreaseLimit();
+                    timedOutCounter.increment();
+                    throw new CustomExceptions.PasswordHashingUnavailableException();
+                }
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CustomExceptions.PasswordHashingUnavailableException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void increaseLimit() {
+        updateLimit(current -> Math.min(maxLimit, current + 1 / current));
+    }
+
+    private void decreaseLimit() {
+        updateLimit(current -> Math.max(minLimit, current * DECREASE_FACTOR));
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        while (true) {
+            long currentBits = limitBits.get();
+            long updatedBits = Double.doubleToLongBits(update.applyAsDouble(Double.longBitsToDouble(currentBits)));
+            if (currentBits == updatedBits || limitBits.compareAndSet(currentBits, updatedBits)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
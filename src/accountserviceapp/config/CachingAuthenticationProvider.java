@@ -0,0 +1,65 @@
+package accountserviceapp.config;
+
+import accountserviceapp.business.CredentialCache;
+import accountserviceapp.exceptions.CustomExceptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+    private final CredentialCache credentialCache;
+    private final MeterRegistry meterRegistry;
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService,
+                                         PasswordEncoder passwordEncoder,
+                                         CredentialCache credentialCache,
+                                         MeterRegistry meterRegistry) {
+        this.credentialCache = credentialCache;
+        this.meterRegistry = meterRegistry;
+        setUserDetailsService(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+
+        if (userDetailsService instanceof UserDetailsPasswordService userDetailsPasswordService) {
+            setUserDetailsPasswordService(userDetailsPasswordService);
+        }
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        try {
+            return super.authenticate(authentication);
+        } catch (CustomExceptions.PasswordHashingUnavailableException e) {
+            throw new AuthenticationServiceException("Password hashing is overloaded, try again later!", e);
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+
+        if (credentials != null
+                && credentialCache.isVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword())) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } catch (AuthenticationException e) {
+            sample.stop(meterRegistry.timer("auth.password.verify", "outcome", "mismatch"));
+            throw e;
+        }
+        sample.stop(meterRegistry.timer("auth.password.verify", "outcome", "match"));
+
+        credentialCache.put(userDetails.getUsername(), credentials.toString(), userDetails.getPassword());
+    }
+}
@@ -0,0 +1,51 @@
+package accountserviceapp.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    public static final int MIN_COST = 10;
+    public static final int MAX_COST = 16;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int cost;
+
+    public CalibratedBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    public static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        String hash = probe.encode("calibration-password");
+        long fastest = Long.MAX_VALUE;
+
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration-password", hash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        double ratio = targetMillis * 1_000_000.0 / Math.max(1, fastest);
+        int cost = MIN_COST + (int) Math.round(Math.log(ratio) / Math.log(2));
+        return Math.max(MIN_COST, Math.min(MAX_COST, cost));
+    }
+}
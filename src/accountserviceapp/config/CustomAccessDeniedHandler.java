@@ -2,6 +2,8 @@ package accountserviceapp.config;
 
 import accountserviceapp.business.EventLog;
 import accountserviceapp.business.LoggingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,27 +13,27 @@ import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 @Component
 public class CustomAccessDeniedHandler implements AccessDeniedHandler {
     private final LoggingService loggingService;
+    private final Counter accessDeniedCounter;
 
     @Autowired
-    public CustomAccessDeniedHandler(LoggingService loggingService) {
+    public CustomAccessDeniedHandler(LoggingService loggingService, MeterRegistry meterRegistry) {
         this.loggingService = loggingService;
+        this.accessDeniedCounter = Counter.builder("auth.access.denied").tag("outcome", "forbidden").register(meterRegistry);
     }
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, AccessDeniedException accessDeniedException) throws IOException, ServletException {
         loggingService.logCurrEvent(new EventLog(
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 "ACCESS_DENIED",
                 request.getUserPrincipal().getName().toLowerCase(),
                 request.getRequestURI(),
                 request.getRequestURI())
         );
+        accessDeniedCounter.increment();
         response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access Denied!");
     }
 }
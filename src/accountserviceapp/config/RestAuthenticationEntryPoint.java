@@ -1,9 +1,13 @@
 package accountserviceapp.config;
 
 import accountserviceapp.business.EventLog;
+import accountserviceapp.business.FailedLoginTracker;
 import accountserviceapp.business.LoggingService;
+import accountserviceapp.business.LoginThrottle;
 import accountserviceapp.business.User;
 import accountserviceapp.business.UserService;
+import accountserviceapp.exceptions.CustomExceptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,24 +18,37 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 
 @Component
 public class RestAuthenticationEntryPoint implements AuthenticationEntryPoint {
     private final LoggingService loggingService;
+    private final LoginThrottle loginThrottle;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     private UserService userService;
 
-    public RestAuthenticationEntryPoint(LoggingService loggingService) {
+    public RestAuthenticationEntryPoint(LoggingService loggingService, LoginThrottle loginThrottle,
+                                        MeterRegistry meterRegistry) {
         this.loggingService = loggingService;
+        this.loginThrottle = loginThrottle;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException, ServletException {
+        if (authException.getCause() instanceof CustomExceptions.PasswordHashingUnavailableException) {
+            meterRegistry.counter("auth.failures", "outcome", "hashing_unavailable").increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, authException.getMessage());
+            return;
+        }
+
         String authorizationHeader = request.getHeader("Authorization");
+        String outcome = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? "invalid_token"
+                : "no_credentials";
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Basic ")) {
             String base64Credentials = authorizationHeader.substring("Basic ".length());
@@ -41,36 +58,36 @@ public class RestAuthenticationEntryPoint implements AuthenticationEntryPoint {
             if (splitCredentials.length == 2) {
                 String username = splitCredentials[0].toLowerCase();
                 User currUser = userService.getUserByEmail(username);
+                loginThrottle.recordFailure(User.canonicalize(username));
 
                 if (currUser != null && currUser.isAccountNonLocked()) {
-                    if (currUser.getFailedAttempt() < userService.MAX_FAILED_ATTEMPTS - 1) {
-                        userService.increaseFailedAttempts(currUser);
+                    FailedLoginTracker.Outcome failure = userService.increaseFailedAttempts(currUser);
+
+                    if (failure == FailedLoginTracker.Outcome.FAILED
+                            || (failure == FailedLoginTracker.Outcome.OVER_LIMIT && !currUser.isAdministrator())) {
+                        outcome = "login_failed";
                         loggingService.logCurrEvent(new EventLog(
-                                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                                 "LOGIN_FAILED",
                                 username,
                                 request.getRequestURI(),
                                 request.getRequestURI())
                         );
                     } else {
-                        userService.increaseFailedAttempts(currUser);
+                        outcome = failure == FailedLoginTracker.Outcome.LOCKOUT ? "lockout" : "brute_force";
                         userService.lock(currUser);
                         loggingService.logCurrEvent(new EventLog(
-                                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                                 "LOGIN_FAILED",
                                 username,
                                 request.getRequestURI(),
                                 request.getRequestURI())
                         );
                         loggingService.logCurrEvent(new EventLog(
-                                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                                 "BRUTE_FORCE",
                                 username,
                                 request.getRequestURI(),
                                 request.getRequestURI())
                         );
                         loggingService.logCurrEvent(new EventLog(
-                                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                                 "LOCK_USER",
                                 username,
                                 "Lock user " + username,
@@ -78,17 +95,20 @@ public class RestAuthenticationEntryPoint implements AuthenticationEntryPoint {
                         );
                     }
                 } else if (currUser == null) {
+                    outcome = "unknown_user";
                     loggingService.logCurrEvent(new EventLog(
-                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                             "LOGIN_FAILED",
                             username,
                             request.getRequestURI(),
                             request.getRequestURI())
                     );
+                } else {
+                    outcome = "locked";
                 }
             }
         }
 
+        meterRegistry.counter("auth.failures", "outcome", outcome).increment();
         response.sendError(HttpServletResponse.SC_UNAUTHORIZED, authException.getMessage());
     }
 }
\ No newline at end of file
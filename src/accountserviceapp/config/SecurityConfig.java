@@ -1,14 +1,24 @@
 package accountserviceapp.config;
 
+import accountserviceapp.business.CredentialCache;
 import accountserviceapp.business.LoggingService;
+import accountserviceapp.business.LoginThrottle;
+import accountserviceapp.business.TokenService;
+import accountserviceapp.business.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -16,6 +26,15 @@ public class SecurityConfig {
     @Autowired
     private LoggingService loggingService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public SecurityFilterChain configure(HttpSecurity http) throws Exception {
         return http
@@ -27,13 +46,17 @@ public class SecurityConfig {
                 .httpBasic()
                 .authenticationEntryPoint(customAuthenticationEntryPoint())
                 .and()
+                .addFilterBefore(new ThrottlingFilter(loginThrottle), BasicAuthenticationFilter.class)
+                .addFilterBefore(new AccessTokenAuthenticationFilter(tokenService, customAuthenticationEntryPoint()),
+                        BasicAuthenticationFilter.class)
                 .authorizeRequests(auth -> { auth
                     .requestMatchers("/h2-console/**", "/error/**", "/actuator/shutdown").permitAll()
                     .requestMatchers("/api/auth/signup").permitAll()
+                    .requestMatchers("/api/auth/token").authenticated()
                     .requestMatchers("/api/empl/payment").hasAnyAuthority("ROLE_ACCOUNTANT", "ROLE_USER")
                     .requestMatchers("/api/acct/*").hasAuthority("ROLE_ACCOUNTANT")
-                    .requestMatchers("/api/admin/user/**").hasAuthority("ROLE_ADMINISTRATOR")
-                    .requestMatchers("/api/security/events/").hasAuthority("ROLE_AUDITOR")
+                    .requestMatchers("/api/admin/user/**", "/api/admin/audit/**", "/api/admin/payroll/**").hasAuthority("ROLE_ADMINISTRATOR")
+                    .requestMatchers("/api/security/events/**").hasAuthority("ROLE_AUDITOR")
                     .anyRequest().permitAll();
                 })
                 .sessionManagement()
@@ -43,17 +66,37 @@ public class SecurityConfig {
     }
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(13);
+    public BulkheadPasswordEncoder passwordEncoder(@Value("${auth.hash.bcrypt-cost:0}") int bcryptCost,
+                                                   @Value("${auth.hash.target-millis:250}") long targetMillis,
+                                                   @Value("${auth.hash.pool-size:0}") int poolSize,
+                                                   @Value("${auth.hash.max-concurrency:0}") int maxConcurrency,
+                                                   @Value("${auth.hash.queue-timeout-ms:2000}") long queueTimeoutMillis) {
+        int cost = bcryptCost > 0 ? bcryptCost : CalibratedBCryptPasswordEncoder.calibrate(targetMillis);
+        CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(cost);
+        meterRegistry.gauge("auth.password.hash.cost", bcrypt, CalibratedBCryptPasswordEncoder::getCost);
+
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BulkheadPasswordEncoder(delegatingEncoder, threads,
+                maxConcurrency > 0 ? maxConcurrency : threads * 8, queueTimeoutMillis, meterRegistry);
+    }
+
+    @Bean
+    public CachingAuthenticationProvider authenticationProvider(UserService userService,
+                                                                PasswordEncoder passwordEncoder,
+                                                                CredentialCache credentialCache) {
+        return new CachingAuthenticationProvider(userService, passwordEncoder, credentialCache, meterRegistry);
     }
 
     @Bean
     public CustomAccessDeniedHandler accessDeniedHandler(){
-        return new CustomAccessDeniedHandler(loggingService);
+        return new CustomAccessDeniedHandler(loggingService, meterRegistry);
     }
 
     @Bean
     public RestAuthenticationEntryPoint customAuthenticationEntryPoint() {
-        return new RestAuthenticationEntryPoint(loggingService);
+        return new RestAuthenticationEntryPoint(loggingService, loginThrottle, meterRegistry);
     }
 }
\ No newline at end of file
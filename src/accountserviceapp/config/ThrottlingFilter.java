@@ -0,0 +1,61 @@
+package accountserviceapp.config;
+
+import accountserviceapp.business.LoginThrottle;
+import accountserviceapp.business.User;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class ThrottlingFilter extends OncePerRequestFilter {
+    private final LoginThrottle loginThrottle;
+
+    public ThrottlingFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String authorizationHeader = request.getHeader("Authorization");
+        boolean basicAuthentication = authorizationHeader != null && authorizationHeader.startsWith("Basic ");
+        boolean signUp = "POST".equals(request.getMethod()) && request.getRequestURI().equals("/api/auth/signup");
+
+        if (loginThrottle.isEnabled() && (basicAuthentication || signUp)
+                && isThrottled(request, response, basicAuthentication ? extractUsername(authorizationHeader) : null)) {
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isThrottled(HttpServletRequest request, HttpServletResponse response, String username) {
+        String remoteAddress = request.getRemoteAddr();
+        LoginThrottle.Scope scope = loginThrottle.tryAcquire(remoteAddress, username);
+
+        if (scope != null) {
+            long retryAfter = loginThrottle.retryAfterSeconds(scope, scope == LoginThrottle.Scope.IP ? remoteAddress : username);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            return true;
+        }
+
+        return false;
+    }
+
+    private String extractUsername(String authorizationHeader) {
+        try {
+            String credentials = new String(Base64.getDecoder().decode(authorizationHeader.substring("Basic ".length())),
+                    StandardCharsets.UTF_8);
+            int separator = credentials.indexOf(':');
+            return separator > 0 ? User.canonicalize(credentials.substring(0, separator)) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
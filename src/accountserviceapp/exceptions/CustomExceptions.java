@@ -29,6 +29,9 @@ public class CustomExceptions {
     @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid period!")
     public static class InvalidPeriodException extends RuntimeException {}
 
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid export format!")
+    public static class InvalidExportFormatException extends RuntimeException {}
+
     @ResponseStatus(code = HttpStatus.NOT_FOUND, reason = "User not found!")
     public static class UserNotFoundException extends RuntimeException {}
 
@@ -55,4 +58,16 @@ public class CustomExceptions {
 
     @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid or missing user params!!")
     public static class InvalidRequestException extends RuntimeException {}
+
+    @ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "Invalid audit query!")
+    public static class InvalidAuditQueryException extends RuntimeException {}
+
+    @ResponseStatus(code = HttpStatus.NOT_FOUND, reason = "Token authentication is disabled!")
+    public static class TokenAuthenticationDisabledException extends RuntimeException {}
+
+    @ResponseStatus(code = HttpStatus.NOT_FOUND, reason = "Audit journal is disabled!")
+    public static class AuditJournalDisabledException extends RuntimeException {}
+
+    @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE, reason = "Password hashing is overloaded, try again later!")
+    public static class PasswordHashingUnavailableException extends RuntimeException {}
 }
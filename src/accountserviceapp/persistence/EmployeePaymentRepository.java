@@ -1,18 +1,31 @@
 package accountserviceapp.persistence;
 
+import accountserviceapp.business.PayrollSummary;
 import accountserviceapp.presentation.PaymentDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 
-public interface EmployeePaymentRepository extends CrudRepository<PaymentDTO, Integer> {
-    PaymentDTO findByEmployeeEmailAndPeriod(String employeeEmail, String period);
+public interface EmployeePaymentRepository extends JpaRepository<PaymentDTO, Integer> {
+    PaymentDTO findByEmployeeEmailAndPeriodKey(String employeeEmail, int periodKey);
 
-    @Query("SELECT p.salary FROM PaymentDTO p WHERE p.employeeEmail = :email AND p.period = :period")
-    Long findSalaryByEmployeeEmailAndPeriod(@Param("email") String email, @Param("period") String period);
+    @Query("SELECT p.salary FROM PaymentDTO p WHERE p.employeeEmail = :email AND p.periodKey = :periodKey")
+    Long findSalaryByEmployeeEmailAndPeriodKey(@Param("email") String email, @Param("periodKey") int periodKey);
 
-    List<PaymentDTO> findAllByEmployeeEmail(String employeeEmail);
+    List<PaymentDTO> findByEmployeeEmailAndPeriodKeyBetweenOrderByPeriodKeyDesc(String employeeEmail, int fromKey, int toKey, Pageable pageable);
+
+    @Query("SELECT new accountserviceapp.business.PayrollSummary(p.periodKey, COUNT(p), SUM(p.salary), MIN(p.salary), MAX(p.salary)) "
+            + "FROM PaymentDTO p GROUP BY p.periodKey ORDER BY p.periodKey")
+    List<PayrollSummary> aggregateByPeriod();
+
+    @Query("SELECT new accountserviceapp.business.PayrollSummary(p.periodKey, COUNT(p), SUM(p.salary), MIN(p.salary), MAX(p.salary)) "
+            + "FROM PaymentDTO p WHERE p.periodKey = :periodKey GROUP BY p.periodKey")
+    PayrollSummary aggregatePeriod(@Param("periodKey") int periodKey);
+
+    List<PaymentDTO> findAllByEmployeeEmailInAndPeriodKeyIn(Collection<String> employeeEmails, Collection<Integer> periodKeys);
 }
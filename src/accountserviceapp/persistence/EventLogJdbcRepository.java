@@ -0,0 +1,193 @@
+package accountserviceapp.persistence;
+
+import accountserviceapp.business.EventLog;
+import accountserviceapp.business.EventLogCount;
+import accountserviceapp.business.EventLogFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+@Repository
+public class EventLogJdbcRepository {
+    private static final int FETCH_SIZE = 500;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final String INSERT_EVENT_LOG_SQL =
+            "INSERT INTO event_logs (created_at, partition_month, action, subject, object, path) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_JOURNAL_EVENT_LOG_SQL =
+            "INSERT INTO event_logs (created_at, partition_month, action, subject, object, path, journal_sequence) "
+                    + "SELECT ?, ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM event_logs WHERE journal_sequence = ?)";
+
+    private final JdbcTemplate cursorJdbcTemplate;
+
+    public EventLogJdbcRepository(DataSource dataSource) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void insertAll(List<EventLog> eventLogs) {
+        cursorJdbcTemplate.batchUpdate(INSERT_EVENT_LOG_SQL, eventLogs, eventLogs.size(), (ps, eventLog) -> {
+            ps.setLong(1, eventLog.getCreatedAt());
+            ps.setInt(2, eventLog.getPartitionMonth());
+            ps.setString(3, eventLog.getAction());
+            ps.setString(4, eventLog.getSubject());
+            ps.setString(5, eventLog.getObject());
+            ps.setString(6, eventLog.getPath());
+        });
+    }
+
+    public void insertAllFromJournal(List<EventLog> eventLogs) {
+        cursorJdbcTemplate.batchUpdate(INSERT_JOURNAL_EVENT_LOG_SQL, eventLogs, eventLogs.size(), (ps, eventLog) -> {
+            ps.setLong(1, eventLog.getCreatedAt());
+            ps.setInt(2, eventLog.getPartitionMonth());
+            ps.setString(3, eventLog.getAction());
+            ps.setString(4, eventLog.getSubject());
+            ps.setString(5, eventLog.getObject());
+            ps.setString(6, eventLog.getPath());
+            ps.setLong(7, eventLog.getId());
+            ps.setLong(8, eventLog.getId());
+        });
+    }
+
+    public void forEachEventLog(Consumer<EventLog> consumer) {
+        cursorJdbcTemplate.query(
+                "SELECT id, created_at, action, subject, object, path FROM event_logs ORDER BY id",
+                (RowCallbackHandler) resultSet -> consumer.accept(mapEventLog(resultSet)));
+    }
+
+    public void forEachEventLog(int afterId, int limit, Consumer<EventLog> consumer) {
+        cursorJdbcTemplate.query(
+                "SELECT id, created_at, action, subject, object, path FROM event_logs WHERE id > ? ORDER BY id LIMIT ?",
+                (RowCallbackHandler) resultSet -> consumer.accept(mapEventLog(resultSet)),
+                afterId, limit);
+    }
+
+    public void forEachEventLog(EventLogFilter filter, Consumer<EventLog> consumer) {
+        List<Object> params = new ArrayList<>();
+        cursorJdbcTemplate.query(
+                "SELECT id, created_at, action, subject, object, path FROM event_logs WHERE "
+                        + whereClause(filter, params) + " ORDER BY created_at, id",
+                (RowCallbackHandler) resultSet -> consumer.accept(mapEventLog(resultSet)),
+                params.toArray());
+    }
+
+    public List<EventLog> search(EventLogFilter filter, long afterCreatedAt, int afterId, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, created_at, action, subject, object, path FROM event_logs WHERE ")
+                .append(whereClause(filter, params))
+                .append(" AND created_at >= ? AND (created_at > ? OR id > ?) ORDER BY created_at, id LIMIT ?");
+        params.add(afterCreatedAt);
+        params.add(afterCreatedAt);
+        params.add(afterId);
+        params.add(limit);
+
+        return cursorJdbcTemplate.query(sql.toString(), (resultSet, rowNum) -> mapEventLog(resultSet), params.toArray());
+    }
+
+    public List<EventLogCount> countByHour(EventLogFilter filter) {
+        return countBy("created_at / " + HOUR_MILLIS, filter);
+    }
+
+    public List<EventLogCount> countByPartition(EventLogFilter filter) {
+        return countBy("partition_month", filter);
+    }
+
+    private List<EventLogCount> countBy(String bucketExpression, EventLogFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + bucketExpression + " AS bucket, action, COUNT(*) AS event_count FROM event_logs WHERE "
+                + whereClause(filter, params) + " GROUP BY bucket, action";
+
+        return cursorJdbcTemplate.query(sql, (resultSet, rowNum) -> new EventLogCount(
+                resultSet.getLong("bucket"),
+                resultSet.getString("action"),
+                resultSet.getLong("event_count")), params.toArray());
+    }
+
+    private String whereClause(EventLogFilter filter, List<Object> params) {
+        StringJoiner conditions = new StringJoiner(" AND ").setEmptyValue("TRUE");
+
+        if (filter.from() != null) {
+            conditions.add("created_at >= ?");
+            params.add(filter.from());
+        }
+
+        if (filter.to() != null) {
+            conditions.add("created_at < ?");
+            params.add(filter.to());
+        }
+
+        if (filter.actions() != null && !filter.actions().isEmpty()) {
+            conditions.add("action IN (" + String.join(", ", Collections.nCopies(filter.actions().size(), "?")) + ")");
+            params.addAll(filter.actions());
+        }
+
+        if (filter.subject() != null) {
+            conditions.add("subject = ?");
+            params.add(filter.subject());
+        }
+
+        if (filter.objectPrefix() != null) {
+            conditions.add("object LIKE ? ESCAPE '\\'");
+            params.add(likePrefix(filter.objectPrefix()));
+        }
+
+        if (filter.pathPrefix() != null) {
+            conditions.add("path LIKE ? ESCAPE '\\'");
+            params.add(likePrefix(filter.pathPrefix()));
+        }
+
+        return conditions.toString();
+    }
+
+    private String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    public List<Integer> findPartitionsBefore(int partitionMonth) {
+        return cursorJdbcTemplate.queryForList(
+                "SELECT DISTINCT partition_month FROM event_logs WHERE partition_month < ? ORDER BY partition_month",
+                Integer.class, partitionMonth);
+    }
+
+    public void forEachEventLogInPartition(int partitionMonth, int afterId, Consumer<EventLog> consumer) {
+        cursorJdbcTemplate.query(
+                "SELECT id, created_at, action, subject, object, path FROM event_logs "
+                        + "WHERE partition_month = ? AND id > ? ORDER BY id",
+                (RowCallbackHandler) resultSet -> consumer.accept(mapEventLog(resultSet)),
+                partitionMonth, afterId);
+    }
+
+    public int deletePartition(int partitionMonth, int maxId, int batchSize) {
+        int deletedRows = 0;
+        int deletedInBatch;
+
+        do {
+            deletedInBatch = cursorJdbcTemplate.update(
+                    "DELETE FROM event_logs WHERE partition_month = ? AND id <= ? FETCH FIRST ? ROWS ONLY",
+                    partitionMonth, maxId, batchSize);
+            deletedRows += deletedInBatch;
+        } while (deletedInBatch == batchSize);
+
+        return deletedRows;
+    }
+
+    private EventLog mapEventLog(ResultSet resultSet) throws SQLException {
+        EventLog eventLog = new EventLog(
+                resultSet.getLong("created_at"),
+                resultSet.getString("action"),
+                resultSet.getString("subject"),
+                resultSet.getString("object"),
+                resultSet.getString("path"));
+        eventLog.setId(resultSet.getInt("id"));
+        return eventLog;
+    }
+}
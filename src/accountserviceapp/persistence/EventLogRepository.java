@@ -1,10 +1,11 @@
 package accountserviceapp.persistence;
 
 import accountserviceapp.business.EventLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
 
 public interface EventLogRepository extends CrudRepository<EventLog, Integer> {
-    List<EventLog> findAllByOrderByIdAsc();
+    List<EventLog> findByIdGreaterThanOrderByIdAsc(int afterId, Pageable pageable);
 }
@@ -0,0 +1,62 @@
+package accountserviceapp.persistence;
+
+import accountserviceapp.presentation.PaymentDTO;
+import accountserviceapp.presentation.PayrollExportDTO;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+@Repository
+public class PayrollJdbcRepository {
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+
+    public PayrollJdbcRepository(DataSource dataSource) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public boolean insertSummaryIfAbsent(int periodKey) {
+        try {
+            return cursorJdbcTemplate.update("INSERT INTO payroll_summary "
+                    + "(period_key, headcount, total_salary, min_salary, max_salary, updated_at) "
+                    + "SELECT ?, 0, 0, 0, 0, 0 WHERE NOT EXISTS (SELECT 1 FROM payroll_summary WHERE period_key = ?)",
+                    periodKey, periodKey) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void forEachPayment(int fromKey, int toKey, Consumer<PayrollExportDTO> consumer) {
+        cursorJdbcTemplate.query(
+                "SELECT p.employee_email, p.period_key, p.salary, u.first_name, u.last_name "
+                        + "FROM employee_salary_db p LEFT JOIN users_db u ON u.email_canonical = p.employee_email "
+                        + "WHERE p.period_key BETWEEN ? AND ? ORDER BY p.period_key",
+                (RowCallbackHandler) resultSet -> consumer.accept(new PayrollExportDTO(
+                        resultSet.getString("employee_email"),
+                        resultSet.getString("first_name"),
+                        resultSet.getString("last_name"),
+                        resultSet.getInt("period_key"),
+                        resultSet.getLong("salary"))),
+                fromKey, toKey);
+    }
+
+    public void forEachEmployeePayment(String email, int fromKey, int toKey, int limit, Consumer<PaymentDTO> consumer) {
+        cursorJdbcTemplate.query(
+                "SELECT period_key, salary FROM employee_salary_db "
+                        + "WHERE employee_email = ? AND period_key BETWEEN ? AND ? ORDER BY period_key DESC LIMIT ?",
+                (RowCallbackHandler) resultSet -> {
+                    PaymentDTO payment = new PaymentDTO();
+                    payment.setEmployeeEmail(email);
+                    payment.setPeriodKey(resultSet.getInt("period_key"));
+                    payment.setSalary(resultSet.getLong("salary"));
+                    consumer.accept(payment);
+                },
+                email, fromKey, toKey, limit);
+    }
+}
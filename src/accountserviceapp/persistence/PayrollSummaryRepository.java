@@ -0,0 +1,24 @@
+package accountserviceapp.persistence;
+
+import accountserviceapp.business.PayrollSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PayrollSummaryRepository extends JpaRepository<PayrollSummary, Integer> {
+    List<PayrollSummary> findAllByPeriodKeyBetweenOrderByPeriodKeyAsc(int fromKey, int toKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    PayrollSummary findByPeriodKey(int periodKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PayrollSummary> findAllByPeriodKeyInOrderByPeriodKeyAsc(Collection<Integer> periodKeys);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PayrollSummary s ORDER BY s.periodKey")
+    List<PayrollSummary> lockAll();
+}
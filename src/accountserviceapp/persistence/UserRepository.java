@@ -1,17 +1,24 @@
 package accountserviceapp.persistence;
 
 import accountserviceapp.business.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, Integer> {
-    User findUserByEmailIgnoreCase(String username);
-    boolean existsByEmailIgnoreCase(String email);
+    User findByEmailCanonical(String emailCanonical);
+    boolean existsByEmailCanonical(String emailCanonical);
+
+    @Query("SELECT u.emailCanonical, u.id FROM User u WHERE u.emailCanonical IN :emails")
+    List<Object[]> findIdsByEmails(@Param("emails") Collection<String> emails);
 
     @Query("SELECT COUNT(u) FROM User u")
     long countUsers();
@@ -21,7 +28,11 @@ public interface UserRepository extends CrudRepository<User, Integer> {
 
     List<User> findAll();
 
-    @Query("UPDATE User u SET u.failedAttempt = ?1 WHERE u.email = ?2")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.emailCanonical = ?1")
+    Integer lockByEmailCanonical(String emailCanonical);
+
+    @Query("UPDATE User u SET u.failedAttempt = ?1 WHERE u.emailCanonical = ?2")
     @Modifying
     public void updateFailedAttempts(int failAttempts, String email);
 }
@@ -2,17 +2,20 @@ package accountserviceapp.presentation;
 
 import accountserviceapp.business.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -24,6 +27,7 @@ public class AccountRestController {
     private final EventLogService eventLogService;
     private final AccountantService accountantService;
     private final AdministratorService administratorService;
+    private final TokenService tokenService;
 
     @Autowired
     private HttpServletRequest httpServletRequest;
@@ -33,13 +37,15 @@ public class AccountRestController {
                                  LoggingService loggingService,
                                  EventLogService eventLogService,
                                  AccountantService accountantService,
-                                 AdministratorService administratorService) {
+                                 AdministratorService administratorService,
+                                 TokenService tokenService) {
         this.userService = userService;
         this.salaryService = salaryService;
         this.loggingService = loggingService;
         this.eventLogService = eventLogService;
         this.accountantService = accountantService;
         this.administratorService = administratorService;
+        this.tokenService = tokenService;
     }
 
     @PostMapping("api/auth/signup")
@@ -48,7 +54,6 @@ public class AccountRestController {
 
         userService.signUpUser(userToSignUp, bindingResult);
         loggingService.logCurrEvent(new EventLog(
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 "CREATE_USER",
                 userService.getCurrAuthUser(),
                 userToSignUp.getEmail().toLowerCase(),
@@ -58,20 +63,40 @@ public class AccountRestController {
                 .body(new UserResponse(userToSignUp));
     }
 
+    @PostMapping("api/auth/token")
+    public ResponseEntity<?> issueAccessToken(@AuthenticationPrincipal UserDetails userDetails) {
+        return tokenService.issueToken(userDetails);
+    }
+
     @GetMapping("api/empl/payment")
     public ResponseEntity<?> getEmplPayment(@RequestParam(required = false) String period,
+                                            @RequestParam(required = false) String from,
+                                            @RequestParam(required = false) String to,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String before,
                                             @AuthenticationPrincipal UserDetails userDetails) {
-        ResponseEntity<?> responseEntity = salaryService.getEmplPayment(period, userDetails);
+        ResponseEntity<?> responseEntity = salaryService.getEmplPayment(period, from, to, limit, before, userDetails);
         return responseEntity;
     }
 
+    @GetMapping(value = "api/empl/payment", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamEmplPayment(@RequestParam(required = false) String period,
+                                  @RequestParam(required = false) String from,
+                                  @RequestParam(required = false) String to,
+                                  @RequestParam(required = false) Integer limit,
+                                  @RequestParam(required = false) String before,
+                                  @AuthenticationPrincipal UserDetails userDetails,
+                                  HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        salaryService.streamEmplPayment(period, from, to, limit, before, userDetails, response.getOutputStream());
+    }
+
     @PostMapping("api/auth/changepass")
     public ResponseEntity<?> changeUserPassword(@RequestBody PasswordChangeRequest passwordChangeRequest,
                                                 @AuthenticationPrincipal UserDetails userDetails) {
         String currAuthUser = userDetails.getUsername().toLowerCase();
 
         loggingService.logCurrEvent(new EventLog(
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 "CHANGE_PASSWORD",
                 currAuthUser,
                 currAuthUser,
@@ -85,11 +110,54 @@ public class AccountRestController {
         return accountantService.uploadPayrolls(paymentDTOList);
     }
 
+    @PostMapping(value = "api/acct/payments", params = "stream=true")
+    public ResponseEntity<?> uploadPayrollStream(@RequestParam(defaultValue = "true") boolean atomic,
+                                                 InputStream paymentStream) throws IOException {
+        return accountantService.uploadPayrollStream(paymentStream, atomic);
+    }
+
     @PutMapping("api/acct/payments")
     public ResponseEntity<?> uploadPayroll(@RequestBody PaymentDTO paymentDTO) {
         return accountantService.uploadPayroll(paymentDTO);
     }
 
+    @GetMapping("api/acct/export")
+    public void exportPayroll(@RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(required = false) String period,
+                              @RequestParam(required = false) String from,
+                              @RequestParam(required = false) String to,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = accountantService.parseExportFormat(format);
+        AccountantService.PeriodRange range = accountantService.parsePeriodRange(period, from, to);
+
+        response.setContentType(exportFormat == ExportFormat.CSV ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"payroll." + exportFormat.getExtension() + "\"");
+        accountantService.exportPayroll(range, exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("api/acct/summary")
+    public List<PayrollSummary> getPayrollSummary(@RequestParam(required = false) String period,
+                                                  @RequestParam(required = false) String from,
+                                                  @RequestParam(required = false) String to) {
+        return accountantService.getPayrollSummary(accountantService.parsePeriodRange(period, from, to));
+    }
+
+    @PostMapping("api/admin/payroll/summary/rebuild")
+    public ResponseEntity<?> rebuildPayrollSummary() {
+        Map<String, Object> result = administratorService.rebuildPayrollSummary();
+
+        loggingService.logCurrEvent(new EventLog(
+                "REBUILD_PAYROLL_SUMMARY",
+                userService.getCurrAuthUser(),
+                "Rebuilt payroll summary, mismatched periods: " + result.get("mismatchedPeriods"),
+                httpServletRequest.getRequestURI())
+        );
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("api/admin/user/")
     public ResponseEntity<?> getAllUsers() {
         List<User> users = userService.getAllUsersInDB();
@@ -106,7 +174,6 @@ public class AccountRestController {
         administratorService.deleteUserByEmail(userEmail);
 
         loggingService.logCurrEvent(new EventLog(
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 "DELETE_USER",
                 userService.getCurrAuthUser(),
                 userEmail,
@@ -128,7 +195,6 @@ public class AccountRestController {
         String formattedOperation = Character.toUpperCase(operation.charAt(0)) + operation.substring(1).toLowerCase();
         String preposition = operation.equals("GRANT") ? "to" : "from";
         loggingService.logCurrEvent(new EventLog(
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 roleManageRequest.getOperation() + "_ROLE",
                 userService.getCurrAuthUser(),
                 formattedOperation + " role " + roleManageRequest.getRole() + " " + preposition + " " + roleManageRequest.getEmail().toLowerCase(),
@@ -148,7 +214,6 @@ public class AccountRestController {
 
         String formattedOperation = Character.toUpperCase(operation.charAt(0)) + operation.substring(1).toLowerCase();
         loggingService.logCurrEvent(new EventLog(
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                 operation + "_USER",
                 userService.getCurrAuthUser(),
                 formattedOperation + " user " + userToManageEmail,
@@ -159,9 +224,84 @@ public class AccountRestController {
                 "User " + userToManageEmail + " " + operation.toLowerCase() + "ed!"), HttpStatus.OK);
     }
 
+    @PostMapping("api/admin/audit/replay")
+    public ResponseEntity<?> replayAuditJournal() {
+        long replayed = eventLogService.replayJournal();
+
+        loggingService.logCurrEvent(new EventLog(
+                "REPLAY_AUDIT_JOURNAL",
+                userService.getCurrAuthUser(),
+                "Replayed " + replayed + " audit events",
+                httpServletRequest.getRequestURI())
+        );
+
+        return new ResponseEntity(Map.of("status", "Replayed " + replayed + " audit events!"), HttpStatus.OK);
+    }
+
     @GetMapping("api/security/events/")
-    public ResponseEntity<?> getSecurityLogs() {
-        List<EventLog> eventLogs = (eventLogService.getAllEventLogs() == null) ? List.of() : eventLogService.getAllEventLogs();
-        return ResponseEntity.ok(eventLogs);
+    public ResponseEntity<?> getSecurityLogs(@RequestParam(required = false) Integer afterId,
+                                             @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return ResponseEntity.ok(eventLogService.getAllEventLogs());
+        }
+
+        return eventLogService.getEventLogPage(afterId, limit);
+    }
+
+    @GetMapping("api/security/events/search")
+    public ResponseEntity<?> searchSecurityLogs(@RequestParam(required = false) List<String> action,
+                                                @RequestParam(required = false) String subject,
+                                                @RequestParam(required = false) String object,
+                                                @RequestParam(required = false) String path,
+                                                @RequestParam(required = false) String from,
+                                                @RequestParam(required = false) String to,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(required = false) Integer limit) {
+        EventLogFilter filter = eventLogService.createFilter(action, subject, object, path, from, to);
+        return eventLogService.searchEventLogs(filter, after, limit);
+    }
+
+    @GetMapping("api/security/events/summary")
+    public List<EventLogSummaryDTO> summarizeSecurityLogs(@RequestParam(defaultValue = "hour") String bucket,
+                                                          @RequestParam(required = false) List<String> action,
+                                                          @RequestParam(required = false) String subject,
+                                                          @RequestParam(required = false) String object,
+                                                          @RequestParam(required = false) String path,
+                                                          @RequestParam(required = false) String from,
+                                                          @RequestParam(required = false) String to) {
+        EventLogFilter filter = eventLogService.createFilter(action, subject, object, path, from, to);
+        return eventLogService.summarizeEventLogs(filter, bucket);
+    }
+
+    @GetMapping("api/security/events/export")
+    public void exportSecurityLogs(@RequestParam(defaultValue = "ndjson") String format,
+                                   @RequestParam(required = false) List<String> action,
+                                   @RequestParam(required = false) String subject,
+                                   @RequestParam(required = false) String object,
+                                   @RequestParam(required = false) String path,
+                                   @RequestParam(required = false) String from,
+                                   @RequestParam(required = false) String to,
+                                   HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = eventLogService.parseExportFormat(format);
+        EventLogFilter filter = eventLogService.createFilter(action, subject, object, path, from, to);
+
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"event_logs." + exportFormat.getExtension() + ".gz\"");
+        eventLogService.exportEventLogs(filter, exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping(value = "api/security/events/", params = "stream=true")
+    public void streamSecurityLogs(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        eventLogService.streamAllEventLogs(response.getOutputStream());
+    }
+
+    @GetMapping(value = "api/security/events/", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamSecurityLogsNdjson(@RequestParam(required = false) Integer afterId,
+                                         @RequestParam(required = false) Integer limit,
+                                         HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        eventLogService.streamEventLogs(afterId, limit, response.getOutputStream());
     }
 }
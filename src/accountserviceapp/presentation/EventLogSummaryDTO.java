@@ -0,0 +1,16 @@
+package accountserviceapp.presentation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@AllArgsConstructor
+@Getter
+@JsonPropertyOrder({"bucket", "action", "count"})
+public class EventLogSummaryDTO {
+    private String bucket;
+    private String action;
+    private long count;
+}
@@ -1,19 +1,22 @@
 package accountserviceapp.presentation;
 
+import accountserviceapp.business.PayPeriod;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "employee_salary_db")
+@Table(name = "employee_salary_db",
+        indexes = @Index(name = "idx_employee_salary_period_key", columnList = "periodKey"))
 public class PaymentDTO {
     @Id
     @GeneratedValue
@@ -23,10 +26,20 @@ public class PaymentDTO {
     @NotBlank
     private String employeeEmail;
 
-    @NotBlank
-    @Pattern(regexp = "^(0[1-9]|1[0-2])-\\d{4}$")
-    private String period;
+    @JsonIgnore
+    @ColumnDefault("0")
+    private int periodKey;
 
     @Min(value = 1)
     private long salary;
+
+    @JsonProperty("period")
+    public String getPeriod() {
+        return PayPeriod.format(periodKey);
+    }
+
+    @JsonProperty("period")
+    public void setPeriod(String period) {
+        this.periodKey = PayPeriod.parse(period);
+    }
 }
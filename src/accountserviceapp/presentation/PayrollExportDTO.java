@@ -0,0 +1,34 @@
+package accountserviceapp.presentation;
+
+import accountserviceapp.business.PayPeriod;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@AllArgsConstructor
+@Getter
+@JsonPropertyOrder({"employee", "name", "lastname", "period", "salary"})
+public class PayrollExportDTO {
+    @JsonProperty("employee")
+    private String employeeEmail;
+
+    @JsonProperty("name")
+    private String firstName;
+
+    @JsonProperty("lastname")
+    private String lastName;
+
+    @JsonIgnore
+    private int periodKey;
+
+    private long salary;
+
+    @JsonProperty("period")
+    public String getPeriod() {
+        return PayPeriod.format(periodKey);
+    }
+}
@@ -0,0 +1,105 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.EventLogJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuditLogWriterTest {
+    @TempDir
+    Path directory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventLogJdbcRepository eventLogJdbcRepository = mock(EventLogJdbcRepository.class);
+    private final List<EventLog> inserted = new ArrayList<>();
+
+    @Test
+    void spilledEventsAreReplayedAndTheFileIsRemoved() {
+        Path spillFile = directory.resolve("spill.ndjson");
+        AuditLogWriter writer = writer(spillFile);
+        failInserts(1);
+
+        writer.enqueue(new EventLog(1234L, "LOGIN_FAILED", "Anonymous", "a@acme.com", "/api/auth"));
+        assertThat(spillFile).exists();
+
+        writer.replaySpill();
+
+        assertThat(inserted).singleElement().satisfies(eventLog -> {
+            assertThat(eventLog.getCreatedAt()).isEqualTo(1234L);
+            assertThat(eventLog.getAction()).isEqualTo("LOGIN_FAILED");
+            assertThat(eventLog.getObject()).isEqualTo("a@acme.com");
+        });
+        assertThat(spillFile).doesNotExist();
+        assertThat(meterRegistry.get("audit.writer.spill").tag("operation", "replayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedReplayKeepsOnlyTheEventsThatWereNotInserted() throws IOException {
+        Path spillFile = directory.resolve("spill.ndjson");
+        AuditLogWriter writer = writer(spillFile);
+        failInserts(3);
+        for (int i = 1; i <= 3; i++) {
+            writer.enqueue(new EventLog(i, "A", "s", "o" + i, "p"));
+        }
+
+        failInserts(Integer.MAX_VALUE);
+        writer.replaySpill();
+        assertThat(Files.readAllLines(spillFile)).hasSize(3);
+
+        doAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return null;
+        }).doThrow(new IllegalStateException()).when(eventLogJdbcRepository).insertAll(anyList());
+        writer.replaySpill();
+
+        assertThat(inserted).extracting(EventLog::getObject).containsExactly("o1", "o2");
+        assertThat(Files.readAllLines(spillFile)).singleElement().asString().contains("\"o3\"");
+
+        failInserts(0);
+        writer.replaySpill();
+        assertThat(inserted).extracting(EventLog::getObject).containsExactly("o1", "o2", "o3");
+        assertThat(spillFile).doesNotExist();
+    }
+
+    @Test
+    void spillWriteFailuresAreNotCountedAsDrops() throws IOException {
+        Path spillFile = Files.createDirectory(directory.resolve("spill.ndjson"));
+        AuditLogWriter writer = writer(spillFile);
+        failInserts(1);
+
+        writer.enqueue(new EventLog(1L, "A", "s", "o", "p"));
+
+        assertThat(meterRegistry.get("audit.writer.spill").tag("operation", "write-failed").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("audit.writer.overflow").tag("policy", "drop").counter().count()).isZero();
+    }
+
+    private AuditLogWriter writer(Path spillFile) {
+        return new AuditLogWriter(eventLogJdbcRepository, new ObjectMapper(), meterRegistry, 10, 2, 200,
+                AuditLogWriter.OverflowPolicy.SPILL, spillFile.toString());
+    }
+
+    private void failInserts(int failures) {
+        int[] failuresLeft = {failures};
+        doAnswer(invocation -> {
+            if (failuresLeft[0]-- > 0) {
+                throw new IllegalStateException();
+            }
+            inserted.addAll(invocation.getArgument(0));
+            return null;
+        }).when(eventLogJdbcRepository).insertAll(anyList());
+    }
+}
@@ -0,0 +1,99 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.GroupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DataLoaderTest {
+    private final JdbcTemplate jdbcTemplate =
+            new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:data_loader;DB_CLOSE_DELAY=-1"));
+
+    @BeforeEach
+    void createLegacySchema() {
+        jdbcTemplate.execute("CREATE TABLE users_db (id INT PRIMARY KEY, email VARCHAR(255), email_canonical VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE employee_salary_db (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "employee_email VARCHAR(255), period VARCHAR(7), period_key INT DEFAULT 0 NOT NULL, salary BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE event_logs (id INT PRIMARY KEY, date VARCHAR(32), "
+                + "created_at BIGINT DEFAULT 0 NOT NULL, partition_month INT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE payroll_summary (period_key INT PRIMARY KEY, headcount BIGINT, "
+                + "total_salary BIGINT, min_salary BIGINT, max_salary BIGINT, updated_at BIGINT)");
+    }
+
+    @AfterEach
+    void dropSchema() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void lowercasesLegacyPaymentEmailsAndKeepsTheLatestCaseDuplicate() {
+        insertPayment("Ann@Acme.com", "01-2024", 100);
+        insertPayment("ann@acme.com", "01-2024", 200);
+        insertPayment("Ann@Acme.com", "02-2024", 300);
+        insertPayment("bob@acme.com", "01-2024", 400);
+        jdbcTemplate.update("INSERT INTO payroll_summary VALUES (202401, 3, 700, 100, 400, 0)");
+
+        new DataLoader(mock(GroupRepository.class), jdbcTemplate);
+
+        assertThat(jdbcTemplate.queryForList("SELECT employee_email || ':' || period_key || ':' || salary "
+                + "FROM employee_salary_db ORDER BY id", String.class))
+                .containsExactly("ann@acme.com:202401:200", "ann@acme.com:202402:300", "bob@acme.com:202401:400");
+        assertThat(jdbcTemplate.queryForList("SELECT period_key || ':' || headcount || ':' || total_salary "
+                + "FROM payroll_summary ORDER BY period_key", String.class))
+                .containsExactly("202401:2:600", "202402:1:300");
+    }
+
+    @Test
+    void leavesTheSummaryAloneWhenEmailsAreAlreadyCanonical() {
+        insertPayment("ann@acme.com", "01-2024", 100);
+        jdbcTemplate.update("INSERT INTO payroll_summary VALUES (202401, 1, 100, 100, 100, 42)");
+
+        new DataLoader(mock(GroupRepository.class), jdbcTemplate);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT updated_at FROM payroll_summary", Long.class)).isEqualTo(42);
+    }
+
+    @Test
+    void addsThePeriodConstraintAfterTheBackfill() {
+        insertPayment("ann@acme.com", "01-2024", 100);
+        insertPayment("ann@acme.com", "02-2024", 200);
+
+        new DataLoader(mock(GroupRepository.class), jdbcTemplate);
+        new DataLoader(mock(GroupRepository.class), jdbcTemplate);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO employee_salary_db "
+                + "(employee_email, period_key, salary) VALUES ('ann@acme.com', 202401, 300)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void skipsLegacyBackfillsOnAFreshSchema() {
+        jdbcTemplate.execute("ALTER TABLE employee_salary_db DROP COLUMN period");
+        jdbcTemplate.execute("ALTER TABLE event_logs DROP COLUMN date");
+
+        new DataLoader(mock(GroupRepository.class), jdbcTemplate);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                + "WHERE CONSTRAINT_NAME = 'UK_EMPLOYEE_SALARY_PERIOD_KEY'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void failsWhenAMigrationFails() {
+        insertPayment("ann@acme.com", "xx-2024", 100);
+
+        assertThatThrownBy(() -> new DataLoader(mock(GroupRepository.class), jdbcTemplate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private void insertPayment(String employeeEmail, String period, long salary) {
+        jdbcTemplate.update("INSERT INTO employee_salary_db (employee_email, period, salary) VALUES (?, ?, ?)",
+                employeeEmail, period, salary);
+    }
+}
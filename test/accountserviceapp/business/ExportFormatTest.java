@@ -0,0 +1,22 @@
+package accountserviceapp.business;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportFormatTest {
+
+    @Test
+    void quotesSeparatorsAndQuotes() {
+        assertThat(ExportFormat.csvRow("a,b", "say \"hi\"", null, "plain"))
+                .isEqualTo("\"a,b\",\"say \"\"hi\"\"\",,plain\n");
+    }
+
+    @Test
+    void neutralizesFormulaLeadingValues() {
+        assertThat(ExportFormat.csvRow("=1+1", "+1", "-1", "@SUM(A1)", "\tx", "\rx"))
+                .isEqualTo("'=1+1,'+1,'-1,'@SUM(A1),'\tx,\"'\rx\"\n");
+        assertThat(ExportFormat.csvRow("=HYPERLINK(\"x\",\"y\")"))
+                .isEqualTo("\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"\n");
+    }
+}
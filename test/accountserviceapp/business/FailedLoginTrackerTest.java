@@ -0,0 +1,106 @@
+package accountserviceapp.business;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailedLoginTrackerTest {
+    private static final String EMAIL = "ann@acme.com";
+
+    @Test
+    void lockoutIsReportedOnceAtTheThreshold() {
+        FailedLoginTracker tracker = tracker(3600);
+
+        List<FailedLoginTracker.Outcome> outcomes = record(tracker, 8);
+
+        assertThat(outcomes.subList(0, 4)).containsOnly(FailedLoginTracker.Outcome.FAILED);
+        assertThat(outcomes.get(4)).isEqualTo(FailedLoginTracker.Outcome.LOCKOUT);
+        assertThat(outcomes.subList(5, 8)).containsOnly(FailedLoginTracker.Outcome.OVER_LIMIT);
+        assertThat(tracker.getFailedAttempts(EMAIL, 0)).isEqualTo(UserService.MAX_FAILED_ATTEMPTS);
+    }
+
+    @Test
+    void concurrentFailuresReportLockoutOnce() throws Exception {
+        FailedLoginTracker tracker = tracker(3600);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<List<FailedLoginTracker.Outcome>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> record(tracker, 10));
+            }
+
+            long lockouts = 0;
+            for (Future<List<FailedLoginTracker.Outcome>> future : executor.invokeAll(tasks)) {
+                lockouts += future.get().stream().filter(FailedLoginTracker.Outcome.LOCKOUT::equals).count();
+            }
+
+            assertThat(lockouts).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void lockoutIsReportedAgainAfterTheWindowExpires() throws InterruptedException {
+        FailedLoginTracker tracker = tracker(1);
+
+        assertThat(record(tracker, 5)).containsOnlyOnce(FailedLoginTracker.Outcome.LOCKOUT);
+        Thread.sleep(1100);
+
+        assertThat(tracker.getFailedAttempts(EMAIL, 5)).isZero();
+        assertThat(record(tracker, 5)).containsOnlyOnce(FailedLoginTracker.Outcome.LOCKOUT);
+    }
+
+    @Test
+    void persistedAttemptsCountTowardsTheThreshold() {
+        FailedLoginTracker tracker = tracker(3600);
+
+        assertThat(tracker.recordFailure(EMAIL, 4)).isEqualTo(FailedLoginTracker.Outcome.LOCKOUT);
+        assertThat(tracker.recordFailure("bob@acme.com", 5)).isEqualTo(FailedLoginTracker.Outcome.OVER_LIMIT);
+    }
+
+    @Test
+    void resetIsVisibleUntilTheNextDrain() {
+        FailedLoginTracker tracker = tracker(3600);
+        record(tracker, 3);
+
+        assertThat(tracker.drainDirty()).containsEntry(EMAIL, 3);
+        tracker.reset(EMAIL);
+
+        assertThat(tracker.wasResetSinceDrain(EMAIL)).isTrue();
+        assertThat(tracker.getFailedAttempts(EMAIL, 3)).isEqualTo(3);
+        assertThat(tracker.drainDirty()).doesNotContainKey(EMAIL);
+        assertThat(tracker.wasResetSinceDrain(EMAIL)).isFalse();
+    }
+
+    @Test
+    void drainOnlyReturnsUsersWithUnpersistedChanges() {
+        FailedLoginTracker tracker = tracker(3600);
+        record(tracker, 2);
+        tracker.recordFailure("bob@acme.com", 0);
+        tracker.markPersisted("bob@acme.com");
+
+        assertThat(tracker.drainDirty()).containsOnlyKeys(EMAIL);
+        assertThat(tracker.drainDirty()).isEmpty();
+    }
+
+    private static FailedLoginTracker tracker(long windowSeconds) {
+        return new FailedLoginTracker(windowSeconds, new SimpleMeterRegistry());
+    }
+
+    private static List<FailedLoginTracker.Outcome> record(FailedLoginTracker tracker, int failures) {
+        List<FailedLoginTracker.Outcome> outcomes = new ArrayList<>();
+        for (int i = 0; i < failures; i++) {
+            outcomes.add(tracker.recordFailure(EMAIL, 0));
+        }
+        return outcomes;
+    }
+}
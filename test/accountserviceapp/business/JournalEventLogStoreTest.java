@@ -0,0 +1,207 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.EventLogJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class JournalEventLogStoreTest {
+    private static final int RECORD_BYTES = 8 + Long.BYTES + 4 * Integer.BYTES + 4;
+
+    @TempDir
+    Path journalDir;
+
+    @TempDir
+    Path archiveDir;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventLogJdbcRepository eventLogJdbcRepository = mock(EventLogJdbcRepository.class);
+
+    @Test
+    void recordsSurviveReopen() throws IOException {
+        JournalEventLogStore store = open("");
+        append(store, 3, System.currentTimeMillis());
+        store.destroy();
+
+        JournalEventLogStore reopened = open("");
+        List<EventLog> eventLogs = reopened.findPage(0, 10);
+
+        assertThat(eventLogs).extracting(EventLog::getId).containsExactly(1, 2, 3);
+        assertThat(eventLogs.get(1).getAction()).isEqualTo("A");
+        assertThat(eventLogs.get(1).getPath()).isEqualTo("p");
+
+        append(reopened, 1, System.currentTimeMillis());
+        assertThat(reopened.findPage(3, 10)).extracting(EventLog::getId).containsExactly(4);
+    }
+
+    @Test
+    void tornTailIsDroppedOnRecovery() throws IOException {
+        JournalEventLogStore store = open("");
+        append(store, 5, System.currentTimeMillis());
+        store.destroy();
+
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 4L * RECORD_BYTES + 8 + Long.BYTES);
+        }
+
+        JournalEventLogStore reopened = open("");
+
+        assertThat(reopened.findPage(0, 10)).extracting(EventLog::getId).containsExactly(1, 2, 3, 4);
+        assertThat(meterRegistry.get("audit.journal.records").tag("operation", "corrupt").counter().count())
+                .isEqualTo(1);
+
+        append(reopened, 1, System.currentTimeMillis());
+        assertThat(reopened.findPage(0, 10)).extracting(EventLog::getId).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void sequenceResumesAfterReplayCheckpoint() throws IOException {
+        JournalEventLogStore store = open("");
+        append(store, 3, System.currentTimeMillis());
+        store.destroy();
+
+        Files.writeString(journalDir.resolve("replayed.checkpoint"), "7");
+
+        JournalEventLogStore reopened = open("");
+        append(reopened, 1, System.currentTimeMillis());
+
+        assertThat(reopened.findPage(0, 10)).extracting(EventLog::getId).containsExactly(1, 2, 3, 8);
+        assertThat(reopened.replayIntoDatabase()).isEqualTo(1);
+        assertThat(journalDir.resolve("replayed.checkpoint")).hasContent("8");
+    }
+
+    @Test
+    void replaySkipsRecordsAlreadyInTheDatabase() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:journal_replay;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE event_logs (id INT AUTO_INCREMENT PRIMARY KEY, created_at BIGINT, "
+                + "partition_month INT, action VARCHAR(255), subject VARCHAR(255), object VARCHAR(255), "
+                + "path VARCHAR(255), journal_sequence BIGINT UNIQUE)");
+        try {
+            AuditArchive auditArchive = new AuditArchive(new ObjectMapper(), meterRegistry, "");
+            JournalEventLogStore store = new JournalEventLogStore(journalDir.toString(), 1,
+                    new EventLogJdbcRepository(dataSource), auditArchive, meterRegistry);
+            append(store, 3, System.currentTimeMillis());
+
+            assertThat(store.replayIntoDatabase()).isEqualTo(3);
+            Files.delete(journalDir.resolve("replayed.checkpoint"));
+            append(store, 2, System.currentTimeMillis());
+            store.replayIntoDatabase();
+
+            assertThat(jdbcTemplate.queryForList("SELECT journal_sequence FROM event_logs ORDER BY id", Long.class))
+                    .containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(journalDir.resolve("replayed.checkpoint")).hasContent("5");
+        } finally {
+            jdbcTemplate.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    void searchOrdersByCreatedAtFromTheCursor() throws IOException {
+        JournalEventLogStore store = open("");
+        for (long createdAt : new long[]{1000, 3000, 2000, 2000, 500}) {
+            append(store, 1, createdAt);
+        }
+        EventLogFilter filter = new EventLogFilter(null, null, null, null, null, null);
+
+        assertThat(store.search(filter, 0, 0, 10)).extracting(EventLog::getId).containsExactly(5, 1, 3, 4, 2);
+        assertThat(store.search(filter, 2000, 3, 10)).extracting(EventLog::getId).containsExactly(4, 2);
+        assertThat(store.search(filter, 1000, 1, 2)).extracting(EventLog::getId).containsExactly(3, 4);
+        assertThat(store.search(filter, 3000, 2, 10)).isEmpty();
+    }
+
+    @Test
+    void appendRejectsSequencesBeyondTheIdRange() throws IOException {
+        Files.writeString(journalDir.resolve("replayed.checkpoint"), Long.toString(Integer.MAX_VALUE));
+        JournalEventLogStore store = open("");
+
+        assertThatThrownBy(() -> append(store, 1, System.currentTimeMillis()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(store.findPage(0, 10)).isEmpty();
+    }
+
+    @Test
+    void pagesAcrossSegmentsFromIndexedOffsets() throws IOException {
+        int total = 3 * 1024 * 1024 / RECORD_BYTES;
+        JournalEventLogStore store = open("");
+        append(store, total, System.currentTimeMillis());
+        store.destroy();
+
+        assertThat(meterRegistry.get("audit.journal.segments").gauge().value()).isGreaterThan(2);
+
+        JournalEventLogStore reopened = open("");
+        for (int afterId : new int[]{0, 63, 64, 65, 1000, 1024 * 1024 / RECORD_BYTES, total - 2}) {
+            assertThat(reopened.findPage(afterId, 2))
+                    .extracting(EventLog::getId)
+                    .containsExactly(afterId + 1, afterId + 2);
+        }
+
+        assertThat(reopened.findPage(total, 10)).isEmpty();
+        List<EventLog> tail = new ArrayList<>();
+        reopened.forEach(total - 1000, Integer.MAX_VALUE, tail::add);
+        assertThat(tail).hasSize(1000);
+        assertThat(tail.get(999).getId()).isEqualTo(total);
+
+        int[] streamed = {0};
+        reopened.forEach(0, Integer.MAX_VALUE, eventLog -> streamed[0]++);
+        assertThat(streamed[0]).isEqualTo(total);
+    }
+
+    @Test
+    void retentionArchivesAndDropsExpiredSegments() throws IOException {
+        long expiredAt = EventLog.startOfPartition(EventLog.partitionOf(YearMonth.now().minusMonths(2)));
+        JournalEventLogStore store = open(archiveDir.toString());
+
+        int expired = 0;
+        while (meterRegistry.get("audit.journal.segments").gauge().value() < 2) {
+            append(store, 1, expiredAt);
+            expired++;
+        }
+        append(store, 10, System.currentTimeMillis());
+
+        store.applyRetention(EventLog.partitionOf(YearMonth.now()));
+
+        assertThat(store.findPage(0, 1)).extracting(EventLog::getId).containsExactly(expired);
+        assertThat(meterRegistry.get("audit.retention.rows").counter().count()).isEqualTo(expired - 1);
+        assertThat(archiveDir.resolve("audit_journal_1-" + (expired - 1) + ".ndjson.gz")).exists();
+
+        store.applyRetention(EventLog.partitionOf(YearMonth.now()));
+        assertThat(store.findPage(0, 1)).extracting(EventLog::getId).containsExactly(expired);
+    }
+
+    private JournalEventLogStore open(String archiveDir) throws IOException {
+        AuditArchive auditArchive = new AuditArchive(new ObjectMapper(), meterRegistry, archiveDir);
+        return new JournalEventLogStore(journalDir.toString(), 1, eventLogJdbcRepository, auditArchive, meterRegistry);
+    }
+
+    private static void append(JournalEventLogStore store, int count, long createdAt) {
+        for (int i = 0; i < count; i++) {
+            store.append(new EventLog(createdAt, "A", "s", "o", "p"));
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package accountserviceapp.business;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoginThrottleTest {
+    private final LoggingService loggingService = mock(LoggingService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void ipBucketRefillsAfterBurst() throws InterruptedException {
+        LoginThrottle throttle = throttle(3, 20, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("10.0.0.1", null)).isNull();
+        }
+        assertThat(throttle.tryAcquire("10.0.0.1", null)).isEqualTo(LoginThrottle.Scope.IP);
+        assertThat(throttle.tryAcquire("10.0.0.2", null)).isNull();
+
+        Thread.sleep(120);
+        assertThat(throttle.tryAcquire("10.0.0.1", null)).isNull();
+    }
+
+    @Test
+    void userBucketOnlyDrainsOnFailures() {
+        LoginThrottle throttle = throttle(1000, 1, 100);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(throttle.tryAcquire("10.0.0.1", "user@acme.com")).isNull();
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            throttle.recordFailure("user@acme.com");
+        }
+
+        assertThat(throttle.tryAcquire("10.0.0.1", "user@acme.com")).isEqualTo(LoginThrottle.Scope.USER);
+        assertThat(throttle.tryAcquire("10.0.0.1", "other@acme.com")).isNull();
+        assertThat(throttle.retryAfterSeconds(LoginThrottle.Scope.USER, "user@acme.com")).isPositive();
+    }
+
+    @Test
+    void bucketsStayWithinMaxSize() {
+        LoginThrottle throttle = throttle(1, 0.001, 10);
+
+        for (int i = 0; i < 100; i++) {
+            throttle.tryAcquire("10.0.0." + i, null);
+            throttle.recordFailure("user" + i + "@acme.com");
+        }
+
+        assertThat(meterRegistry.get("auth.throttle.buckets").tag("scope", "ip").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get("auth.throttle.buckets").tag("scope", "user").gauge().value()).isEqualTo(10);
+        assertThat(throttle.tryAcquire("10.0.0.200", null)).isEqualTo(LoginThrottle.Scope.IP);
+    }
+
+    @Test
+    void throttledRequestsAreAuditedOncePerClientAndOverflowIsFolded() {
+        LoginThrottle throttle = throttle(1, 0.001, 3);
+
+        for (int client = 0; client < 10; client++) {
+            for (int i = 0; i < 5; i++) {
+                throttle.tryAcquire("10.0.0." + client, null);
+            }
+        }
+
+        throttle.logThrottledRequests();
+
+        ArgumentCaptor<EventLog> events = ArgumentCaptor.forClass(EventLog.class);
+        verify(loggingService, atLeast(1)).logCurrEvent(events.capture());
+        List<String> objects = events.getAllValues().stream().map(EventLog::getObject).toList();
+
+        assertThat(events.getAllValues()).allMatch(eventLog -> eventLog.getAction().equals("THROTTLED"));
+        assertThat(objects).containsExactlyInAnyOrder(
+                "Throttled 4 requests from 10.0.0.0",
+                "Throttled 4 requests from 10.0.0.1",
+                "Throttled 4 requests from 10.0.0.2",
+                "Throttled 34 requests from other clients");
+
+        throttle.logThrottledRequests();
+        verify(loggingService, times(4)).logCurrEvent(any());
+        assertThat(meterRegistry.get("auth.throttle.throttled").gauge().value()).isZero();
+    }
+
+    @Test
+    void quietIntervalLogsNothing() {
+        LoginThrottle throttle = throttle(10, 10, 100);
+        throttle.tryAcquire("10.0.0.1", "user@acme.com");
+
+        throttle.logThrottledRequests();
+
+        verify(loggingService, never()).logCurrEvent(any());
+    }
+
+    private LoginThrottle throttle(int capacity, double refillPerSecond, int maxSize) {
+        return new LoginThrottle(true, capacity, refillPerSecond, capacity, refillPerSecond, maxSize, 300,
+                loggingService, meterRegistry);
+    }
+}
@@ -0,0 +1,102 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.EmployeePaymentRepository;
+import accountserviceapp.persistence.PayrollSummaryRepository;
+import accountserviceapp.presentation.PaymentDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payroll_summary;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.jpa.show-sql=false",
+        "audit.journal.dir=${java.io.tmpdir}/payroll_summary_journal",
+        "audit.writer.spill-file=${java.io.tmpdir}/payroll_summary_spill.ndjson"
+})
+class PayrollSummaryConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 150;
+    private static final String[] EMPLOYEES = {"a@acme.com", "b@acme.com", "c@acme.com", "d@acme.com", "e@acme.com"};
+    private static final String[] PERIODS = {"01-2024", "02-2024", "03-2024"};
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private EmployeePaymentRepository employeePaymentRepository;
+
+    @Autowired
+    private PayrollSummaryRepository payrollSummaryRepository;
+
+    @Test
+    void summaryMatchesAggregateAfterParallelUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                Random random = new Random(thread);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        if (random.nextInt(4) == 0) {
+                            upsertList(List.of(payment(random, 0), payment(random, 1)));
+                        } else {
+                            upsert(payment(random, random.nextInt(PERIODS.length)));
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<PayrollSummary> expected = employeePaymentRepository.aggregateByPeriod();
+        List<PayrollSummary> actual = payrollSummaryRepository.findAllByPeriodKeyBetweenOrderByPeriodKeyAsc(0, Integer.MAX_VALUE);
+
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).getPeriodKey()).isEqualTo(expected.get(i).getPeriodKey());
+            assertThat(actual.get(i).hasSameTotals(expected.get(i)))
+                    .as("summary for %s", expected.get(i).getPeriod())
+                    .isTrue();
+        }
+    }
+
+    private void upsert(PaymentDTO paymentDTO) {
+        try {
+            salaryService.upsertEmployeeSalaryTable(paymentDTO);
+        } catch (DataIntegrityViolationException e) {
+            salaryService.upsertEmployeeSalaryTable(paymentDTO);
+        }
+    }
+
+    private void upsertList(List<PaymentDTO> paymentDTOList) {
+        try {
+            salaryService.upsertEmployeeSalaryTableByList(paymentDTOList);
+        } catch (DataIntegrityViolationException e) {
+            salaryService.upsertEmployeeSalaryTableByList(paymentDTOList);
+        }
+    }
+
+    private static PaymentDTO payment(Random random, int period) {
+        PaymentDTO paymentDTO = new PaymentDTO();
+        paymentDTO.setEmployeeEmail(EMPLOYEES[random.nextInt(EMPLOYEES.length)]);
+        paymentDTO.setPeriodKey(PayPeriod.parse(PERIODS[period]));
+        paymentDTO.setSalary(1 + random.nextInt(100_000));
+        return paymentDTO;
+    }
+}
@@ -0,0 +1,62 @@
+package accountserviceapp.business;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+    private static final UserDetails ANN = org.springframework.security.core.userdetails.User.withUsername("Ann@acme.com")
+            .password("")
+            .authorities("ROLE_USER", "ROLE_ACCOUNTANT")
+            .build();
+
+    @Test
+    void acceptsAFreshToken() {
+        TokenService tokenService = new TokenService(true, 900);
+
+        Authentication authentication = tokenService.authenticate(issue(tokenService));
+
+        assertThat(authentication.getName()).isEqualTo("ann@acme.com");
+        assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities()))
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ACCOUNTANT");
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeRevocation() {
+        TokenService tokenService = new TokenService(true, 900);
+        String revokedToken = issue(tokenService);
+
+        tokenService.revokeTokens("ANN@acme.com");
+
+        assertThat(tokenService.authenticate(revokedToken)).isNull();
+        assertThat(tokenService.authenticate(issue(tokenService))).isNotNull();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        TokenService tokenService = new TokenService(true, -1);
+
+        assertThat(tokenService.authenticate(issue(tokenService))).isNull();
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        TokenService tokenService = new TokenService(true, 900);
+        String token = issue(tokenService);
+        String payload = token.substring(0, token.indexOf('.'));
+
+        assertThat(tokenService.authenticate(payload + "x" + token.substring(payload.length()))).isNull();
+        assertThat(tokenService.authenticate(issue(new TokenService(true, 900)))).isNull();
+        assertThat(tokenService.authenticate("not-a-token")).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String issue(TokenService tokenService) {
+        return (String) ((Map<String, Object>) tokenService.issueToken(ANN).getBody()).get("token");
+    }
+}
@@ -0,0 +1,140 @@
+package accountserviceapp.business;
+
+import accountserviceapp.persistence.UserRepository;
+import accountserviceapp.presentation.PasswordChangeRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+    private static final String EMAIL = "Ann@acme.com";
+    private static final String CANONICAL_EMAIL = "ann@acme.com";
+    private static final String OLD_PASSWORD = "oldPassword123";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+    private final CredentialCache credentialCache = new CredentialCache(300, 100, meterRegistry);
+    private final UserCache userCache = new UserCache(60, 100, meterRegistry);
+    private final FailedLoginTracker failedLoginTracker = new FailedLoginTracker(3600, meterRegistry);
+    private final TokenService tokenService = new TokenService(true, 900);
+
+    private UserService userService;
+    private User storedUser;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, passwordEncoder, roleRegistry, credentialCache,
+                userCache, failedLoginTracker, tokenService, meterRegistry);
+        ReflectionTestUtils.setField(userService, "entityManager", mock(EntityManager.class));
+
+        storedUser = new User();
+        storedUser.setId(1);
+        storedUser.setEmail(EMAIL);
+        storedUser.setPassword(passwordEncoder.encode(OLD_PASSWORD));
+        storedUser.setAccountNonLocked(true);
+        storedUser.addUserGroup(new Group(Role.USER));
+
+        when(userRepository.findByEmailCanonical(CANONICAL_EMAIL)).thenAnswer(invocation -> copyOf(storedUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            storedUser = copyOf(invocation.getArgument(0));
+            return storedUser;
+        });
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void passwordChangeEvictsCachedCredentialsAndUser() {
+        String oldHash = storedUser.getPassword();
+        credentialCache.put(EMAIL, OLD_PASSWORD, oldHash);
+        assertThat(userService.getUserByEmail(EMAIL).getPassword()).isEqualTo(oldHash);
+
+        PasswordChangeRequest request = new PasswordChangeRequest();
+        request.setNewPassword("newPassword123");
+        userService.changeUserPassword(new AccountAdapter(userService.getUserByEmail(EMAIL)), request);
+
+        assertThat(credentialCache.isVerified(EMAIL, OLD_PASSWORD, oldHash)).isFalse();
+        User reloaded = userService.getUserByEmail(EMAIL);
+        assertThat(passwordEncoder.matches("newPassword123", reloaded.getPassword())).isTrue();
+        verify(userRepository, times(3)).findByEmailCanonical(CANONICAL_EMAIL);
+    }
+
+    @Test
+    void roleChangeEvictsSharedAndRequestScopedUser() {
+        when(roleRegistry.getGroup(Role.ACCOUNTANT)).thenReturn(new Group(Role.ACCOUNTANT));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        credentialCache.put(EMAIL, OLD_PASSWORD, storedUser.getPassword());
+
+        User cachedUser = userService.getUserByEmail(EMAIL);
+        assertThat(cachedUser.hasRole(Role.ACCOUNTANT)).isFalse();
+
+        userService.setUserGroup(cachedUser, Role.ACCOUNTANT);
+
+        assertThat(userService.getUserByEmail(EMAIL).hasRole(Role.ACCOUNTANT)).isTrue();
+        RequestContextHolder.resetRequestAttributes();
+        assertThat(userService.getUserByEmail(EMAIL).hasRole(Role.ACCOUNTANT)).isTrue();
+        assertThat(credentialCache.isVerified(EMAIL, OLD_PASSWORD, storedUser.getPassword())).isFalse();
+    }
+
+    @Test
+    void flushWritesDrainedFailedAttempts() {
+        for (int i = 0; i < 3; i++) {
+            userService.increaseFailedAttempts(storedUser);
+        }
+
+        userService.flushFailedAttempts();
+
+        verify(userRepository).updateFailedAttempts(3, CANONICAL_EMAIL);
+    }
+
+    @Test
+    void flushSkipsUsersResetAfterTheDrain() {
+        for (int i = 0; i < 3; i++) {
+            userService.increaseFailedAttempts(storedUser);
+        }
+        when(userRepository.lockByEmailCanonical(CANONICAL_EMAIL)).thenAnswer(invocation -> {
+            userService.resetFailedAttempts(storedUser);
+            return storedUser.getId();
+        });
+
+        userService.flushFailedAttempts();
+
+        verify(userRepository, never()).updateFailedAttempts(3, CANONICAL_EMAIL);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setEmail(user.getEmail());
+        copy.setEmailCanonical(User.canonicalize(user.getEmail()));
+        copy.setPassword(user.getPassword());
+        copy.setAccountNonLocked(user.isAccountNonLocked());
+        copy.setFailedAttempt(user.getFailedAttempt());
+        copy.setUserGroups(new TreeSet<>(user.getUserGroups()));
+        return copy;
+    }
+}
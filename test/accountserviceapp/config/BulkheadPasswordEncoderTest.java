@@ -0,0 +1,70 @@
+package accountserviceapp.config;
+
+import accountserviceapp.exceptions.CustomExceptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkheadPasswordEncoderTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void queuedHashTimesOutAsUnavailable() throws Exception {
+        try (BulkheadPasswordEncoder encoder = blockingEncoder(4, 100)) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("pw", "hash"));
+            assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> encoder.matches("pw", "hash"))
+                    .isInstanceOf(CustomExceptions.PasswordHashingUnavailableException.class);
+            assertThat(meterRegistry.get("auth.password.hash.rejected").tag("reason", "queue_timeout").counter().count())
+                    .isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void requestsOverTheLimitAreRejectedWithoutQueueing() throws Exception {
+        try (BulkheadPasswordEncoder encoder = blockingEncoder(2, 5000)) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("pw", "hash"));
+            assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("pw", "hash"));
+            while (meterRegistry.get("auth.password.hash.in_flight").gauge().value() < 2) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> encoder.matches("pw", "hash"))
+                    .isInstanceOf(CustomExceptions.PasswordHashingUnavailableException.class);
+            assertThat(meterRegistry.get("auth.password.hash.rejected").tag("reason", "limit").counter().count())
+                    .isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private BulkheadPasswordEncoder blockingEncoder(int maxLimit, long queueTimeoutMillis) {
+        when(delegate.matches(any(), anyString())).thenAnswer(invocation -> {
+            hashing.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        return new BulkheadPasswordEncoder(delegate, 1, maxLimit, queueTimeoutMillis, meterRegistry);
+    }
+}
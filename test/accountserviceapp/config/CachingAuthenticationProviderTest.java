@@ -0,0 +1,39 @@
+package accountserviceapp.config;
+
+import accountserviceapp.business.CredentialCache;
+import accountserviceapp.exceptions.CustomExceptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingAuthenticationProviderTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hashingOverloadBecomesAnAuthenticationServiceException() {
+        UserDetailsService userDetailsService = username -> User.withUsername(username)
+                .password("{bcrypt}hash")
+                .authorities("ROLE_USER")
+                .build();
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(any(), anyString())).thenThrow(new CustomExceptions.PasswordHashingUnavailableException());
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(userDetailsService, passwordEncoder,
+                new CredentialCache(300, 100, meterRegistry), meterRegistry);
+
+        assertThatThrownBy(() -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("ann@acme.com", "password1234")))
+                .isInstanceOf(AuthenticationServiceException.class)
+                .hasCauseInstanceOf(CustomExceptions.PasswordHashingUnavailableException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package accountserviceapp.config;
+
+import accountserviceapp.business.CredentialCache;
+import accountserviceapp.business.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CalibratedBCryptPasswordEncoderTest {
+    private static final String PASSWORD = "password1234";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CalibratedBCryptPasswordEncoder bcrypt = new CalibratedBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradesOnlyBCryptHashesWithADifferentCost() {
+        assertThat(bcrypt.upgradeEncoding(bcrypt.encode(PASSWORD))).isFalse();
+        assertThat(bcrypt.upgradeEncoding(new BCryptPasswordEncoder(4).encode(PASSWORD))).isTrue();
+        assertThat(bcrypt.upgradeEncoding(new BCryptPasswordEncoder(BCryptPasswordEncoder.BCryptVersion.$2Y, 6)
+                .encode(PASSWORD))).isTrue();
+
+        assertThat(bcrypt.upgradeEncoding(null)).isFalse();
+        assertThat(bcrypt.upgradeEncoding("")).isFalse();
+        assertThat(bcrypt.upgradeEncoding("$2a$05$tooshort")).isFalse();
+    }
+
+    @Test
+    void legacyUnprefixedHashIsRehashedOnLogin() {
+        UserService userService = login(new BCryptPasswordEncoder(5).encode(PASSWORD));
+
+        verify(userService).updatePassword(any(), startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void hashWithAnOldCostIsRehashedOnLogin() {
+        UserService userService = login("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        verify(userService).updatePassword(any(), startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void currentHashIsLeftAlone() {
+        UserService userService = login("{bcrypt}" + bcrypt.encode(PASSWORD));
+
+        verify(userService, never()).updatePassword(any(), anyString());
+    }
+
+    private UserService login(String storedHash) {
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        UserService userService = mock(UserService.class);
+        when(userService.loadUserByUsername("ann@acme.com")).thenReturn(User.withUsername("ann@acme.com")
+                .password(storedHash)
+                .authorities("ROLE_USER")
+                .build());
+        when(userService.updatePassword(any(), anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(userService, passwordEncoder,
+                new CredentialCache(300, 100, meterRegistry), meterRegistry);
+        assertThat(provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("ann@acme.com", PASSWORD))
+                .isAuthenticated()).isTrue();
+        return userService;
+    }
+}
@@ -0,0 +1,120 @@
+package accountserviceapp.config;
+
+import accountserviceapp.business.EventLog;
+import accountserviceapp.business.FailedLoginTracker;
+import accountserviceapp.business.Group;
+import accountserviceapp.business.LoggingService;
+import accountserviceapp.business.LoginThrottle;
+import accountserviceapp.business.Role;
+import accountserviceapp.business.User;
+import accountserviceapp.business.UserService;
+import accountserviceapp.exceptions.CustomExceptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestAuthenticationEntryPointTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoggingService loggingService = mock(LoggingService.class);
+    private final UserService userService = mock(UserService.class);
+    private final FailedLoginTracker failedLoginTracker = new FailedLoginTracker(3600, meterRegistry);
+    private final RestAuthenticationEntryPoint entryPoint =
+            new RestAuthenticationEntryPoint(loggingService, mock(LoginThrottle.class), meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(entryPoint, "userService", userService);
+        when(userService.increaseFailedAttempts(any(User.class))).thenAnswer(invocation ->
+                failedLoginTracker.recordFailure(User.canonicalize(invocation.<User>getArgument(0).getEmail()), 0));
+    }
+
+    @Test
+    void administratorBruteForceIsLoggedOnEveryAttemptPastTheThreshold() throws Exception {
+        User admin = user("admin@acme.com", Role.ADMINISTRATOR);
+
+        failLogins(admin, UserService.MAX_FAILED_ATTEMPTS + 2);
+
+        assertThat(actions()).filteredOn("BRUTE_FORCE"::equals).hasSize(3);
+        assertThat(actions()).filteredOn("LOCK_USER"::equals).hasSize(3);
+        assertThat(actions()).filteredOn("LOGIN_FAILED"::equals).hasSize(UserService.MAX_FAILED_ATTEMPTS + 2);
+        assertThat(meterRegistry.get("auth.failures").tag("outcome", "brute_force").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void userLockoutIsLoggedOnce() throws Exception {
+        User user = user("ann@acme.com", Role.USER);
+
+        failLogins(user, UserService.MAX_FAILED_ATTEMPTS + 2);
+
+        assertThat(actions()).filteredOn("BRUTE_FORCE"::equals).hasSize(1);
+        assertThat(actions()).filteredOn("LOCK_USER"::equals).hasSize(1);
+        verify(userService, atLeastOnce()).lock(user);
+    }
+
+    @Test
+    void hashingOverloadMapsToServiceUnavailable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/empl/payment");
+        request.addHeader("Authorization", "Basic " + Base64.getEncoder()
+                .encodeToString("ann@acme.com:password1234".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        entryPoint.commence(request, response, new AuthenticationServiceException("Password hashing is overloaded",
+                new CustomExceptions.PasswordHashingUnavailableException()));
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("auth.failures").tag("outcome", "hashing_unavailable").counter().count())
+                .isEqualTo(1);
+        verify(userService, never()).increaseFailedAttempts(any());
+        verify(loggingService, never()).logCurrEvent(any());
+    }
+
+    private void failLogins(User user, int attempts) throws Exception {
+        when(userService.getUserByEmail(user.getEmail())).thenReturn(user);
+        String credentials = Base64.getEncoder()
+                .encodeToString((user.getEmail() + ":wrongPassword1").getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < attempts; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/empl/payment");
+            request.addHeader("Authorization", "Basic " + credentials);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            entryPoint.commence(request, response, new BadCredentialsException("Bad credentials"));
+
+            assertThat(response.getStatus()).isEqualTo(401);
+        }
+    }
+
+    private List<String> actions() {
+        ArgumentCaptor<EventLog> events = ArgumentCaptor.forClass(EventLog.class);
+        verify(loggingService, atLeastOnce()).logCurrEvent(events.capture());
+        return events.getAllValues().stream().map(EventLog::getAction).toList();
+    }
+
+    private static User user(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setAccountNonLocked(true);
+        user.addUserGroup(new Group(role));
+        return user;
+    }
+}